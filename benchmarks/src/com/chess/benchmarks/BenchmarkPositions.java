@@ -0,0 +1,120 @@
+package com.chess.benchmarks;
+
+import com.chess.engine.board.Board;
+import com.chess.engine.board.BoardUtils;
+import com.chess.engine.board.FenUtilities;
+import com.chess.engine.board.Move;
+import com.chess.engine.board.MoveSetCache;
+import com.chess.engine.pieces.Piece;
+import com.chess.engine.player.MoveTransition;
+import com.chess.engine.player.Player;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The fixed corpus of positions every benchmark runs over, grouped by game phase. Openings have full piece sets and
+ * few captures, middlegames have open lines and tactics, endgames have few pieces and long king and pawn moves
+ */
+public enum BenchmarkPositions {
+
+    OPENING(
+            "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1",
+            "r1bqkbnr/pppp1ppp/2n5/1B2p3/4P3/5N2/PPPP1PPP/RNBQK2R b KQkq - 3 3",
+            "rnbqkb1r/pp2pppp/3p1n2/8/3NP3/8/PPP2PPP/RNBQKB1R w KQkq - 1 5",
+            "rnbqkb1r/ppp1pppp/5n2/3p4/2PP4/8/PP2PPPP/RNBQKBNR w KQkq - 1 3"
+    ),
+    MIDDLEGAME(
+            "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1",
+            "r4rk1/1pp1qppp/p1np1n2/2b1p1B1/2B1P1b1/P1NP1N2/1PP1QPPP/R4RK1 w - - 0 10",
+            "r3k2r/Pppp1ppp/1b3nbN/nP6/BBP1P3/q4N2/Pp1P2PP/R2Q1RK1 w kq - 0 1",
+            "2rq1rk1/pb2bppp/1pn1pn2/2pp4/3P4/1PNBPN2/PB3PPP/2RQ1RK1 w - - 0 11"
+    ),
+    ENDGAME(
+            "8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1",
+            "8/8/4k3/8/2K5/8/3P4/8 w - - 0 1",
+            "8/5pk1/6p1/8/3R4/6P1/5PK1/r7 w - - 0 40",
+            "6k1/5p2/6p1/8/8/1B4P1/5PK1/2n5 b - - 0 45"
+    );
+
+    private final String[] fens;
+
+    BenchmarkPositions(final String... fens) {
+
+        this.fens = fens;
+
+    }
+
+    /**
+     * A method to create fresh boards for every position of the phase
+     */
+    public List<Board> createBoards() {
+
+        return createBoards(null);
+
+    }
+
+    /**
+     * A method to create fresh boards for every position of the phase whose pieces take their moves from a move set
+     * cache, or from the attack map when the cache is null
+     */
+    public List<Board> createBoards(final MoveSetCache moveSetCache) {
+
+        final List<Board> boards = new ArrayList<>();
+
+        for (final String fen : this.fens) {
+            boards.add(FenUtilities.createGameFromFEN(fen, moveSetCache));
+        }
+
+        return boards;
+
+    }
+
+    /**
+     * A method to create a builder holding the same position as a board, so the same board can be built again and
+     * again without the memoized moves and players of an earlier build being reused
+     */
+    public static Board.Builder toBuilder(final Board board) {
+
+        final Board.Builder builder = new Board.Builder();
+
+        for (int tile = 0; tile < BoardUtils.NUM_TILES; tile++) {
+
+            final Piece piece = board.getPiece(tile);
+
+            if (piece != null) {
+                builder.setPiece(piece);
+            }
+
+        }
+
+        builder.setMoveMaker(board.currentPlayer().getAlliance());
+        builder.setEnPassantPawn(board.getEnPassantPawn());
+        builder.setMoveSetCache(board.getMoveSetCache());
+        return builder;
+
+    }
+
+    /**
+     * A method to collect the moves of the player to move that can really be played on a board
+     */
+    public static List<Move> legalMoves(final Board board) {
+
+        final Player currentPlayer = board.currentPlayer();
+        final List<Move> legalMoves = new ArrayList<>();
+
+        for (final Move move : currentPlayer.getLegalMoves()) {
+
+            final MoveTransition transition = currentPlayer.makeMove(move);
+
+            if (transition.getMoveStatus().isDone()) {
+                legalMoves.add(move);
+            }
+
+        }
+
+        return legalMoves;
+
+    }
+
+}
@@ -0,0 +1,35 @@
+package com.chess.benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the benchmarks with the gc profiler, which adds the allocation rate per operation to every result. Pass a
+ * regular expression to run only the matching benchmarks, for example "MoveBenchmark.execute".
+ *
+ * The pom.xml next to the benchmark sources compiles them with the engine sources and the JMH annotation processor
+ * into a single jar whose main class is this runner:
+ *
+ *     mvn -f benchmarks/pom.xml package
+ *     java -jar benchmarks/target/benchmarks.jar MoveBenchmark.execute
+ *
+ * The JMH command line, with its options for forks, iterations and profilers, runs from the same jar with
+ * java -cp benchmarks/target/benchmarks.jar org.openjdk.jmh.Main
+ */
+public class BenchmarkRunner {
+
+    public static void main(final String[] args) throws RunnerException {
+
+        final Options options = new OptionsBuilder()
+                .include(args.length > 0 ? args[0] : "com.chess.benchmarks.*")
+                .addProfiler(GCProfiler.class)
+                .build();
+
+        new Runner(options).run();
+
+    }
+
+}
@@ -0,0 +1,57 @@
+package com.chess.benchmarks;
+
+import com.chess.engine.board.Board;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for creating boards, the cost every executed move pays once
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class BoardBenchmark {
+
+    @Param({"OPENING", "MIDDLEGAME", "ENDGAME"})
+    public BenchmarkPositions phase;
+
+    private List<Board.Builder> builders;
+
+    @Setup
+    public void setUp() {
+
+        this.builders = new ArrayList<>();
+
+        for (final Board board : this.phase.createBoards()) {
+            this.builders.add(BenchmarkPositions.toBuilder(board));
+        }
+
+    }
+
+    @Benchmark
+    public Board createStandardBoard() {
+
+        return Board.createStandardBoard();
+
+    }
+
+    /**
+     * Builds every position of the phase from a filled builder, the same work Move.execute ends with
+     */
+    @Benchmark
+    public void buildBoard(final Blackhole blackhole) {
+
+        for (final Board.Builder builder : this.builders) {
+            blackhole.consume(builder.build());
+        }
+
+    }
+
+}
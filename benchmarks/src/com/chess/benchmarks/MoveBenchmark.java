@@ -0,0 +1,136 @@
+package com.chess.benchmarks;
+
+import com.chess.engine.board.Board;
+import com.chess.engine.board.Move;
+import com.chess.engine.board.MoveSetCache;
+import com.chess.engine.board.PackedMove;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for executing, validating and creating moves over every legal move of the positions of a phase.
+ * A board remembers its players' moves and check state once asked, so the checkmate benchmark builds a fresh board
+ * for every position; BoardBenchmark.buildBoard measures that building on its own
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class MoveBenchmark {
+
+    @Param({"OPENING", "MIDDLEGAME", "ENDGAME"})
+    public BenchmarkPositions phase;
+
+    //The number of move sets cached for the pieces other than pawns, 0 builds their moves from the attack map
+    @Param({"0", "65536"})
+    public int moveSetCacheSize;
+
+    private final List<Board> boards = new ArrayList<>();
+    private final List<Board.Builder> builders = new ArrayList<>();
+    //Every legal move of every board, with the board it belongs to at the same index
+    private final List<Board> moveBoards = new ArrayList<>();
+    private final List<Move> moves = new ArrayList<>();
+    private int[] packedMoves;
+
+    @Setup
+    public void setUp() {
+
+        this.boards.clear();
+        this.builders.clear();
+        this.moveBoards.clear();
+        this.moves.clear();
+
+        final MoveSetCache moveSetCache = this.moveSetCacheSize > 0 ? new MoveSetCache(this.moveSetCacheSize) : null;
+
+        for (final Board board : this.phase.createBoards(moveSetCache)) {
+
+            this.boards.add(board);
+            this.builders.add(BenchmarkPositions.toBuilder(board));
+
+            for (final Move move : BenchmarkPositions.legalMoves(board)) {
+                this.moveBoards.add(board);
+                this.moves.add(move);
+            }
+
+        }
+
+        this.packedMoves = new int[this.moves.size()];
+
+        for (int i = 0; i < this.moves.size(); i++) {
+            this.packedMoves[i] = PackedMove.fromMove(this.moves.get(i));
+        }
+
+    }
+
+    @Benchmark
+    public void execute(final Blackhole blackhole) {
+
+        for (final Move move : this.moves) {
+            blackhole.consume(move.execute());
+        }
+
+    }
+
+    /**
+     * Executes every legal move and generates the moves of the player to move on the board it leads to, the step every
+     * node of a search on boards takes. The boards the moves start from already generated their own moves during
+     * setup, as a parent has before its children are made, so each child derives its attack map from its parent's
+     * and only works out again the attacks of the pieces the move affected
+     */
+    @Benchmark
+    public void executeAndCalculateLegalMoves(final Blackhole blackhole) {
+
+        for (final Move move : this.moves) {
+            blackhole.consume(move.execute().currentPlayer().getLegalMoves());
+        }
+
+    }
+
+    @Benchmark
+    public void makeMove(final Blackhole blackhole) {
+
+        for (int i = 0; i < this.moves.size(); i++) {
+            blackhole.consume(this.moveBoards.get(i).currentPlayer().makeMove(this.moves.get(i)));
+        }
+
+    }
+
+    @Benchmark
+    public void isInCheckMate(final Blackhole blackhole) {
+
+        for (final Board.Builder builder : this.builders) {
+            blackhole.consume(builder.build().currentPlayer().isInCheckMate());
+        }
+
+    }
+
+    /**
+     * Looks every legal move up again by its coordinates, the way the GUI turns a click into a move
+     */
+    @Benchmark
+    public void createMove(final Blackhole blackhole) {
+
+        for (int i = 0; i < this.moves.size(); i++) {
+            final Move move = this.moves.get(i);
+            blackhole.consume(Move.moveFactory.createMove(this.moveBoards.get(i), move.getCurrentCoordinate(),
+                    move.getDestinationCoordinate()));
+        }
+
+    }
+
+    @Benchmark
+    public void createMoveFromPackedMove(final Blackhole blackhole) {
+
+        for (int i = 0; i < this.packedMoves.length; i++) {
+            blackhole.consume(Move.moveFactory.createMove(this.moveBoards.get(i), this.packedMoves[i]));
+        }
+
+    }
+
+}
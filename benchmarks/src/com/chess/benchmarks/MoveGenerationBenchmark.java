@@ -0,0 +1,75 @@
+package com.chess.benchmarks;
+
+import com.chess.engine.board.Board;
+import com.chess.engine.board.MoveSetCache;
+import com.chess.engine.pieces.Piece;
+import com.google.common.collect.Iterables;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for Piece.calculateLegalMoves, one piece type at a time, over every piece of that type of both alliances
+ * in the positions of a phase. Board builds its legal moves from these methods, and every piece but a pawn reads its
+ * attacks from the board's attack map. A board calculates that map once, so after the first call this measures the
+ * moves built from it; MoveBenchmark.executeAndCalculateLegalMoves measures the map derived for each new board too.
+ * With a move set cache the pieces other than pawns take their moves from the cache instead, which the first call
+ * fills for every position of the phase
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class MoveGenerationBenchmark {
+
+    @Param({"OPENING", "MIDDLEGAME", "ENDGAME"})
+    public BenchmarkPositions phase;
+
+    //The number of move sets cached for the pieces other than pawns, 0 builds their moves from the attack map
+    @Param({"0", "65536"})
+    public int moveSetCacheSize;
+
+    @Param({"PAWN", "KNIGHT", "BISHOP", "ROOK", "QUEEN", "KING"})
+    public Piece.PieceType pieceType;
+
+    private final List<Board> boards = new ArrayList<>();
+    private final List<Piece> pieces = new ArrayList<>();
+
+    @Setup
+    public void setUp() {
+
+        this.boards.clear();
+        this.pieces.clear();
+
+        final MoveSetCache moveSetCache = this.moveSetCacheSize > 0 ? new MoveSetCache(this.moveSetCacheSize) : null;
+
+        for (final Board board : this.phase.createBoards(moveSetCache)) {
+
+            for (final Piece piece : Iterables.concat(board.getWhitePieces(), board.getBlackPieces())) {
+
+                if (piece.getPieceType() == this.pieceType) {
+                    this.boards.add(board);
+                    this.pieces.add(piece);
+                }
+
+            }
+
+        }
+
+    }
+
+    @Benchmark
+    public void calculateLegalMoves(final Blackhole blackhole) {
+
+        for (int i = 0; i < this.pieces.size(); i++) {
+            blackhole.consume(this.pieces.get(i).calculateLegalMoves(this.boards.get(i)));
+        }
+
+    }
+
+}
@@ -0,0 +1,210 @@
+package com.chess.engine.board;
+
+import com.chess.engine.Alliance;
+import com.chess.engine.pieces.Piece;
+
+/**
+ * The tiles every piece on a board attacks, kept per tile, together with the tiles each alliance attacks. A board
+ * derived from another board by a move updates the map of the previous board: only the pieces on the tiles the move
+ * changed and the sliding pieces whose rays reached one of those tiles get their attacks calculated again, every other
+ * piece attacks the same tiles as before
+ */
+public final class AttackMap {
+
+    //The tiles attacked by the piece standing on each tile, empty for an empty tile
+    private final long[] pieceAttacks;
+    private final long whiteOccupancy;
+    private final long blackOccupancy;
+    private final long whiteAttacks;
+    private final long blackAttacks;
+
+    private AttackMap(final long[] pieceAttacks, final Board board) {
+
+        this.pieceAttacks = pieceAttacks;
+        this.whiteOccupancy = board.getOccupancy(Alliance.WHITE);
+        this.blackOccupancy = board.getOccupancy(Alliance.BLACK);
+        this.whiteAttacks = combineAttacks(pieceAttacks, this.whiteOccupancy);
+        this.blackAttacks = combineAttacks(pieceAttacks, this.blackOccupancy);
+
+    }
+
+    /**
+     * A method to calculate the attacks of every piece on a board from scratch
+     */
+    static AttackMap calculate(final Board board) {
+
+        final long[] pieceAttacks = new long[BoardUtils.NUM_TILES];
+
+        for (long pieces = board.getOccupancy(); pieces != 0; pieces = BitBoards.popFirstSquare(pieces)) {
+
+            final int tileCoordinate = BitBoards.firstSquare(pieces);
+            pieceAttacks[tileCoordinate] = calculatePieceAttacks(board.getPiece(tileCoordinate), board.getOccupancy());
+
+        }
+
+        return new AttackMap(pieceAttacks, board);
+
+    }
+
+    /**
+     * A method to derive the map of a board from this map, which belongs to the board it was derived from. The changed
+     * tiles are every tile whose piece was removed, placed or replaced on the way from the previous board
+     */
+    AttackMap update(final Board board, final long changedTiles) {
+
+        final long[] pieceAttacks = this.pieceAttacks.clone();
+        final long occupancy = board.getOccupancy();
+
+        //A slider's attacks end on the first piece of each ray, so a ray that passes or ends on a changed tile reaches
+        //a different set of tiles now. Leapers and pawns attack the same tiles whatever stands around them
+        final long sliders = (board.getPieceBitBoard(Alliance.WHITE, Piece.PieceType.BISHOP) |
+                board.getPieceBitBoard(Alliance.WHITE, Piece.PieceType.ROOK) |
+                board.getPieceBitBoard(Alliance.WHITE, Piece.PieceType.QUEEN) |
+                board.getPieceBitBoard(Alliance.BLACK, Piece.PieceType.BISHOP) |
+                board.getPieceBitBoard(Alliance.BLACK, Piece.PieceType.ROOK) |
+                board.getPieceBitBoard(Alliance.BLACK, Piece.PieceType.QUEEN)) & ~changedTiles;
+
+        for (long pieces = sliders; pieces != 0; pieces = BitBoards.popFirstSquare(pieces)) {
+
+            final int tileCoordinate = BitBoards.firstSquare(pieces);
+
+            if ((pieceAttacks[tileCoordinate] & changedTiles) != 0) {
+                pieceAttacks[tileCoordinate] = calculatePieceAttacks(board.getPiece(tileCoordinate), occupancy);
+            }
+
+        }
+
+        for (long tiles = changedTiles; tiles != 0; tiles = BitBoards.popFirstSquare(tiles)) {
+
+            final int tileCoordinate = BitBoards.firstSquare(tiles);
+            final Piece piece = board.getPiece(tileCoordinate);
+            pieceAttacks[tileCoordinate] = piece == null ? BitBoards.EMPTY : calculatePieceAttacks(piece, occupancy);
+
+        }
+
+        return new AttackMap(pieceAttacks, board);
+
+    }
+
+    /**
+     * A method to get the tiles attacked by the piece standing on a tile, empty when the tile is empty
+     */
+    public long getPieceAttacks(final int tileCoordinate) {
+
+        return this.pieceAttacks[tileCoordinate];
+
+    }
+
+    /**
+     * A method to get every tile attacked by at least one piece of an alliance
+     */
+    public long getAttackedTiles(final Alliance alliance) {
+
+        return alliance.isWhite() ? this.whiteAttacks : this.blackAttacks;
+
+    }
+
+    /**
+     * A method to check whether any piece of an alliance attacks a tile
+     */
+    public boolean isAttacked(final int tileCoordinate, final Alliance byAlliance) {
+
+        return BitBoards.isSet(getAttackedTiles(byAlliance), tileCoordinate);
+
+    }
+
+    /**
+     * A method to get a bitboard of the pieces of an alliance that attack a tile
+     */
+    public long getAttackersTo(final int tileCoordinate, final Alliance byAlliance) {
+
+        long attackers = BitBoards.EMPTY;
+
+        for (long pieces = getOccupancy(byAlliance); pieces != 0; pieces = BitBoards.popFirstSquare(pieces)) {
+
+            final int attackerTile = BitBoards.firstSquare(pieces);
+
+            if (BitBoards.isSet(this.pieceAttacks[attackerTile], tileCoordinate)) {
+                attackers |= BitBoards.squareMask(attackerTile);
+            }
+
+        }
+
+        return attackers;
+
+    }
+
+    /**
+     * A method to count how many pieces of an alliance attack a tile, as used for king safety
+     */
+    public int getAttackCount(final int tileCoordinate, final Alliance byAlliance) {
+
+        return BitBoards.count(getAttackersTo(tileCoordinate, byAlliance));
+
+    }
+
+    /**
+     * A method to count the tiles attacked by the pieces on the given tiles that are not occupied by their own
+     * alliance, summed over the pieces, which is the mobility of those pieces
+     */
+    public int getMobility(final long pieces, final Alliance alliance) {
+
+        final long ownOccupancy = getOccupancy(alliance);
+        int mobility = 0;
+
+        for (long remaining = pieces; remaining != 0; remaining = BitBoards.popFirstSquare(remaining)) {
+
+            mobility += BitBoards.count(this.pieceAttacks[BitBoards.firstSquare(remaining)] & ~ownOccupancy);
+
+        }
+
+        return mobility;
+
+    }
+
+    private long getOccupancy(final Alliance alliance) {
+
+        return alliance.isWhite() ? this.whiteOccupancy : this.blackOccupancy;
+
+    }
+
+    /**
+     * A method to get the tiles a piece attacks with the given pieces on the board, pawns attack the two tiles
+     * diagonally in front of them
+     */
+    static long calculatePieceAttacks(final Piece piece, final long occupancy) {
+
+        final int tileCoordinate = piece.getPiecePosition();
+
+        switch (piece.getPieceType()) {
+            case PAWN:
+                return BitBoards.pawnAttacks(piece.getPieceAlliance(), tileCoordinate);
+            case KNIGHT:
+                return BitBoards.knightAttacks(tileCoordinate);
+            case BISHOP:
+                return MagicBitBoards.bishopAttacks(tileCoordinate, occupancy);
+            case ROOK:
+                return MagicBitBoards.rookAttacks(tileCoordinate, occupancy);
+            case QUEEN:
+                return MagicBitBoards.queenAttacks(tileCoordinate, occupancy);
+            default:
+                return BitBoards.kingAttacks(tileCoordinate);
+        }
+
+    }
+
+    private static long combineAttacks(final long[] pieceAttacks, final long occupancy) {
+
+        long attacks = BitBoards.EMPTY;
+
+        for (long pieces = occupancy; pieces != 0; pieces = BitBoards.popFirstSquare(pieces)) {
+
+            attacks |= pieceAttacks[BitBoards.firstSquare(pieces)];
+
+        }
+
+        return attacks;
+
+    }
+
+}
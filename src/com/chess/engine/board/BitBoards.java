@@ -0,0 +1,246 @@
+package com.chess.engine.board;
+
+import com.chess.engine.Alliance;
+import com.chess.engine.pieces.Piece.PieceType;
+
+/**
+ * Helper methods for working with bitboards. A bitboard is a long where bit i is set when tile i is part of the set,
+ * using the same tile numbering as the rest of the board (0 is the top left corner, 63 the bottom right corner)
+ */
+public class BitBoards {
+
+    public static final long EMPTY = 0L;
+
+    //Six piece types for each of the two alliances gives twelve bitboards per position
+    public static final int NUM_PIECE_TYPES = PieceType.values().length;
+    public static final int NUM_PIECE_INDICES = NUM_PIECE_TYPES * Alliance.values().length;
+
+    //Row and column steps of the pieces that jump straight to their destination instead of sliding along a ray
+    private static final int[][] KNIGHT_STEPS = {
+            {-2, -1}, {-2, 1}, {-1, -2}, {-1, 2}, {1, -2}, {1, 2}, {2, -1}, {2, 1}
+    };
+    private static final int[][] KING_STEPS = {{-1, -1}, {-1, 0}, {-1, 1}, {0, -1}, {0, 1}, {1, -1}, {1, 0}, {1, 1}};
+
+    /**
+     * Attack tables for the knight, king and both alliances' pawns with one entry per tile, built once when the class
+     * is loaded so move generation only has to loop over real destinations
+     */
+    private static final long[] KNIGHT_ATTACKS = createLeaperAttacks(KNIGHT_STEPS);
+    private static final long[] KING_ATTACKS = createLeaperAttacks(KING_STEPS);
+    private static final long[][] PAWN_ATTACKS = {
+            createLeaperAttacks(new int[][]{{Alliance.WHITE.getDirection(), -1}, {Alliance.WHITE.getDirection(), 1}}),
+            createLeaperAttacks(new int[][]{{Alliance.BLACK.getDirection(), -1}, {Alliance.BLACK.getDirection(), 1}})
+    };
+
+    /**
+     * Tables indexed by two tiles: the tiles strictly between them, and the whole line through both of them from edge
+     * to edge. Both are empty when the tiles do not share a row, column or diagonal
+     */
+    private static final long[][] BETWEEN = new long[BoardUtils.NUM_TILES][BoardUtils.NUM_TILES];
+    private static final long[][] LINE = new long[BoardUtils.NUM_TILES][BoardUtils.NUM_TILES];
+
+    static {
+        initLines();
+    }
+
+    //BitBoards constructor with a runtimeException to prevent a user from instantiating this class
+    private BitBoards() {
+        throw new RuntimeException("You cannot instantiate me!");
+    }
+
+    /**
+     * A method to get the bitboard containing only the given tile
+     */
+    public static long squareMask(final int tileCoordinate) {
+
+        return 1L << tileCoordinate;
+
+    }
+
+    /**
+     * A method to check whether the given tile is part of the bitboard
+     */
+    public static boolean isSet(final long bitBoard, final int tileCoordinate) {
+
+        return (bitBoard & (1L << tileCoordinate)) != 0;
+
+    }
+
+    /**
+     * A method to get the lowest tile coordinate in a bitboard, the bitboard must not be empty
+     */
+    public static int firstSquare(final long bitBoard) {
+
+        return Long.numberOfTrailingZeros(bitBoard);
+
+    }
+
+    /**
+     * A method to remove the lowest tile coordinate from a bitboard, used to loop over every set tile
+     */
+    public static long popFirstSquare(final long bitBoard) {
+
+        return bitBoard & (bitBoard - 1);
+
+    }
+
+    /**
+     * A method to count the amount of tiles in a bitboard
+     */
+    public static int count(final long bitBoard) {
+
+        return Long.bitCount(bitBoard);
+
+    }
+
+    /**
+     * A method to get every tile a knight standing on the given tile attacks
+     */
+    public static long knightAttacks(final int tileCoordinate) {
+
+        return KNIGHT_ATTACKS[tileCoordinate];
+
+    }
+
+    /**
+     * A method to get every tile a king standing on the given tile attacks
+     */
+    public static long kingAttacks(final int tileCoordinate) {
+
+        return KING_ATTACKS[tileCoordinate];
+
+    }
+
+    /**
+     * A method to get the tiles diagonally in front of a pawn of the given alliance, which are the tiles it attacks
+     */
+    public static long pawnAttacks(final Alliance alliance, final int tileCoordinate) {
+
+        return PAWN_ATTACKS[alliance.ordinal()][tileCoordinate];
+
+    }
+
+    /**
+     * A method to get the tiles a pawn attacks with the alliance given by its ordinal, as used by the search board
+     */
+    public static long pawnAttacks(final int alliance, final int tileCoordinate) {
+
+        return PAWN_ATTACKS[alliance][tileCoordinate];
+
+    }
+
+    /**
+     * A method to get the tiles strictly between two tiles on the same row, column or diagonal
+     */
+    public static long between(final int firstTile, final int secondTile) {
+
+        return BETWEEN[firstTile][secondTile];
+
+    }
+
+    /**
+     * A method to get every tile on the row, column or diagonal running through two tiles
+     */
+    public static long line(final int firstTile, final int secondTile) {
+
+        return LINE[firstTile][secondTile];
+
+    }
+
+    /**
+     * A method to get the index of the bitboard that stores the given alliance's pieces of the given type
+     */
+    public static int pieceIndex(final Alliance alliance, final PieceType pieceType) {
+
+        return alliance.ordinal() * NUM_PIECE_TYPES + pieceType.ordinal();
+
+    }
+
+    /**
+     * A method to build a 64 entry attack table from row and column steps, dropping any step that leaves the board
+     */
+    private static long[] createLeaperAttacks(final int[][] steps) {
+
+        final long[] attacks = new long[BoardUtils.NUM_TILES];
+
+        for (int tile = 0; tile < BoardUtils.NUM_TILES; tile++) {
+
+            final int row = tile / BoardUtils.NUM_TILES_PER_ROW;
+            final int column = tile % BoardUtils.NUM_TILES_PER_ROW;
+
+            for (final int[] step : steps) {
+
+                final int targetRow = row + step[0];
+                final int targetColumn = column + step[1];
+
+                if (targetRow >= 0 && targetRow < BoardUtils.NUM_TILES_PER_ROW &&
+                        targetColumn >= 0 && targetColumn < BoardUtils.NUM_TILES_PER_ROW) {
+
+                    attacks[tile] |= squareMask(targetRow * BoardUtils.NUM_TILES_PER_ROW + targetColumn);
+
+                }
+
+            }
+
+        }
+
+        return attacks;
+
+    }
+
+    /**
+     * A method to fill the between and line tables by walking from every tile in each of the eight directions
+     */
+    private static void initLines() {
+
+        final int[][] directions = {{-1, -1}, {-1, 0}, {-1, 1}, {0, -1}, {0, 1}, {1, -1}, {1, 0}, {1, 1}};
+
+        for (int tile = 0; tile < BoardUtils.NUM_TILES; tile++) {
+
+            final int row = tile / BoardUtils.NUM_TILES_PER_ROW;
+            final int column = tile % BoardUtils.NUM_TILES_PER_ROW;
+
+            for (final int[] direction : directions) {
+
+                //The full line is the ray in this direction plus the ray in the opposite direction
+                final long line = squareMask(tile) | ray(row, column, direction[0], direction[1]) |
+                        ray(row, column, -direction[0], -direction[1]);
+                long between = EMPTY;
+                int targetRow = row + direction[0];
+                int targetColumn = column + direction[1];
+
+                while (targetRow >= 0 && targetRow < BoardUtils.NUM_TILES_PER_ROW &&
+                        targetColumn >= 0 && targetColumn < BoardUtils.NUM_TILES_PER_ROW) {
+
+                    final int target = targetRow * BoardUtils.NUM_TILES_PER_ROW + targetColumn;
+                    BETWEEN[tile][target] = between;
+                    LINE[tile][target] = line;
+                    between |= squareMask(target);
+                    targetRow += direction[0];
+                    targetColumn += direction[1];
+
+                }
+
+            }
+
+        }
+
+    }
+
+    private static long ray(final int row, final int column, final int rowStep, final int columnStep) {
+
+        long ray = EMPTY;
+
+        for (int r = row + rowStep, c = column + columnStep;
+             r >= 0 && r < BoardUtils.NUM_TILES_PER_ROW && c >= 0 && c < BoardUtils.NUM_TILES_PER_ROW;
+             r += rowStep, c += columnStep) {
+
+            ray |= squareMask(r * BoardUtils.NUM_TILES_PER_ROW + c);
+
+        }
+
+        return ray;
+
+    }
+
+}
@@ -5,6 +5,8 @@ import com.chess.engine.pieces.*;
 import com.chess.engine.player.BlackPlayer;
 import com.chess.engine.player.Player;
 import com.chess.engine.player.WhitePlayer;
+import com.google.common.base.Supplier;
+import com.google.common.base.Suppliers;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Iterables;
 
@@ -12,33 +14,78 @@ import java.util.*;
 
 public class Board {
 
-    private final List<Tile> gameBoard;
+    private final Tile[] gameBoard;
 
-    private final Collection<Piece> whitePieces;
-    private final Collection<Piece> blackPieces;
+    //One bitboard per piece type for each alliance, indexed by BitBoards.pieceIndex, plus the occupancy masks
+    private final long[] pieceBitBoards;
+    private final long whiteOccupancy;
+    private final long blackOccupancy;
+    private final long allOccupancy;
 
-    //Two classes to keep track of the White Alliance and Black Alliance players
-    private final WhitePlayer whitePlayer;
-    private final BlackPlayer blackPlayer;
-    private final Player currentPlayer;
+    //The piece lists are only collected from the occupancy bitboards when first asked for
+    private final Supplier<Collection<Piece>> whitePieces;
+    private final Supplier<Collection<Piece>> blackPieces;
+
+    //The pawn that just made a pawn jump and can be captured en passant, null if the last move was not a pawn jump
+    private final Pawn enPassantPawn;
+    private final int castlingRights;
+    private final long zobristKey;
+
+    //The number of moves since the last pawn move or capture, and the keys of the positions reached in those moves
+    private final int halfmoveClock;
+    private final PositionHistory positionHistory;
+
+    private final Alliance nextMoveMaker;
+
+    //The legal moves and the two players are only worked out when first asked for, most boards are thrown away
+    //before anyone needs them. Suppliers.memoize makes sure they are calculated once even when shared by threads
+    private final Supplier<Collection<Move>> whiteStandardLegalMoves;
+    private final Supplier<Collection<Move>> blackStandardLegalMoves;
+    private final Supplier<WhitePlayer> whitePlayer;
+    private final Supplier<BlackPlayer> blackPlayer;
+
+    //The tiles each piece attacks, updated from the previous board's map when this board was derived by a move
+    private final LazyAttackMap attackMap;
+
+    //The move sets of the pieces other than pawns shared by this board and every board derived from it, or null when
+    //they are built from the attack map
+    private final MoveSetCache moveSetCache;
 
     /**
      * A method to call the board builder method and create the chess board
      */
     private Board(final Builder builder) {
 
-        this.gameBoard = createGameBoard(builder);
-        this.whitePieces = calculateActivePieces(this.gameBoard, Alliance.WHITE);
-        this.blackPieces = calculateActivePieces(this.gameBoard, Alliance.BLACK);
+        //The board takes over the builder's arrays, the builder copies them before it changes anything again
+        this.gameBoard = builder.boardConfig;
+        this.pieceBitBoards = builder.pieceBitBoards;
+        builder.isShared = true;
+        this.whiteOccupancy = calculateOccupancy(this.pieceBitBoards, Alliance.WHITE);
+        this.blackOccupancy = calculateOccupancy(this.pieceBitBoards, Alliance.BLACK);
+        this.allOccupancy = this.whiteOccupancy | this.blackOccupancy;
+        this.whitePieces = Suppliers.memoize(() -> calculateActivePieces(this.gameBoard, this.whiteOccupancy));
+        this.blackPieces = Suppliers.memoize(() -> calculateActivePieces(this.gameBoard, this.blackOccupancy));
+        this.enPassantPawn = builder.enPassantPawn;
+        this.castlingRights = builder.hasCastlingRights ? builder.castlingRights :
+                calculateCastlingRights(this.gameBoard);
+
+        this.nextMoveMaker = builder.nextMoveMaker;
+
+        //A move passes in the key it updated incrementally from the previous board, any other board is hashed in full
+        this.zobristKey = builder.hasZobristKey ? builder.zobristKey :
+                calculateZobristKey(this.pieceBitBoards, this.nextMoveMaker, this.castlingRights, this.enPassantPawn);
+        this.halfmoveClock = builder.halfmoveClock;
+        this.positionHistory = builder.positionHistory;
 
         //Adding a collection of the legal moves for each alliance to the Move collection
-        final Collection<Move> whiteStandardLegalMoves = calculateLegalMoves(this.whitePieces);
-        final Collection<Move> blackStandardLegalMoves = calculateLegalMoves(this.blackPieces);
+        this.whiteStandardLegalMoves = Suppliers.memoize(() -> calculateLegalMoves(Alliance.WHITE));
+        this.blackStandardLegalMoves = Suppliers.memoize(() -> calculateLegalMoves(Alliance.BLACK));
 
-        this.whitePlayer = new WhitePlayer(this, whiteStandardLegalMoves, blackStandardLegalMoves);
-        this.blackPlayer = new BlackPlayer(this, whiteStandardLegalMoves, blackStandardLegalMoves);
+        this.whitePlayer = Suppliers.memoize(() -> new WhitePlayer(this, this.whiteStandardLegalMoves));
+        this.blackPlayer = Suppliers.memoize(() -> new BlackPlayer(this, this.blackStandardLegalMoves));
 
-        this.currentPlayer = builder.nextMoveMaker.choosePlayer(this.whitePlayer, this.blackPlayer);
+        this.attackMap = new LazyAttackMap(this, builder.previousAttackMap, builder.changedTiles);
+        this.moveSetCache = builder.moveSetCache;
     }
 
     @Override
@@ -48,7 +95,7 @@ public class Board {
         final StringBuilder builder = new StringBuilder();
         for (int i = 0; i < BoardUtils.NUM_TILES; i++) {
 
-            final String tileText = this.gameBoard.get(i).toString();
+            final String tileText = this.gameBoard[i].toString();
             builder.append(String.format("%3s", tileText));
 
             if ((i + 1) % BoardUtils.NUM_TILES_PER_ROW == 0) {
@@ -63,49 +110,315 @@ public class Board {
 
     }
 
+    @Override
+    public boolean equals(final Object other) {
+
+        if (this == other) {
+
+            return true;
+
+        }
+
+        if (!(other instanceof Board)) {
+
+            return false;
+
+        }
+
+        //The key decides almost every comparison, the full state is only compared when two keys collide
+        final Board otherBoard = (Board) other;
+        return this.zobristKey == otherBoard.zobristKey &&
+                this.castlingRights == otherBoard.castlingRights &&
+                this.nextMoveMaker == otherBoard.nextMoveMaker &&
+                Arrays.equals(this.pieceBitBoards, otherBoard.pieceBitBoards) &&
+                Objects.equals(this.enPassantPawn, otherBoard.enPassantPawn);
+
+    }
+
+    @Override
+    public int hashCode() {
+
+        return (int) (this.zobristKey ^ (this.zobristKey >>> 32));
+
+    }
+
+    /**
+     * A method to get the 64 bit Zobrist key of the position, covering the pieces, the side to move, the castling
+     * rights and the en passant pawn
+     */
+    public long getZobristKey() {
+
+        return this.zobristKey;
+
+    }
+
+    /**
+     * A method to get the number of moves made by both players since the last pawn move or capture
+     */
+    public int getHalfmoveClock() {
+
+        return this.halfmoveClock;
+
+    }
+
+    /**
+     * A method to get the keys of the positions reached since the last pawn move or capture, before this one
+     */
+    public PositionHistory getPositionHistory() {
+
+        return this.positionHistory;
+
+    }
+
+    /**
+     * A method to count how often this position has been on the board since the last pawn move or capture, this
+     * board included. The history is scanned backwards instead of replaying the game
+     */
+    public int getRepetitionCount() {
+
+        return this.positionHistory.countOccurrences(this.zobristKey) + 1;
+
+    }
+
+    /**
+     * A method to check whether this position was on the board before, which is enough for a search to score it as a
+     * draw since the side that repeated it could repeat it again
+     */
+    public boolean isRepetition() {
+
+        return getRepetitionCount() > 1;
+
+    }
+
+    /**
+     * A method to check whether the game is drawn because this position is on the board for the third time
+     */
+    public boolean isDrawByRepetition() {
+
+        return getRepetitionCount() >= 3;
+
+    }
+
+    /**
+     * A method to check whether the game is drawn because fifty moves by each player passed without a pawn move or a
+     * capture
+     */
+    public boolean isDrawByFiftyMoveRule() {
+
+        return this.halfmoveClock >= 100;
+
+    }
+
+    /**
+     * A method to get the castling rights still available in this position as a combination of the BoardUtils flags
+     */
+    public int getCastlingRights() {
+
+        return this.castlingRights;
+
+    }
+
+    public Pawn getEnPassantPawn() {
+
+        return this.enPassantPawn;
+
+    }
+
     public Player whitePlayer() {
 
-        return this.whitePlayer;
+        return this.whitePlayer.get();
 
     }
 
     public Player blackPlayer() {
 
-        return this.blackPlayer;
+        return this.blackPlayer.get();
 
     }
 
     public Player currentPlayer() {
 
-        return this.currentPlayer;
+        return this.nextMoveMaker.choosePlayer(this.whitePlayer.get(), this.blackPlayer.get());
 
     }
 
     //Methods to get the Collection of each alliance's pieces for each respective player class
     public Collection<Piece> getBlackPieces() {
 
-        return this.blackPieces;
+        return this.blackPieces.get();
 
     }
 
     public Collection<Piece> getWhitePieces() {
 
-        return this.blackPieces;
+        return this.whitePieces.get();
+
+    }
+
+    /**
+     * A method to get the bitboard of every tile occupied by a given alliance's pieces of a given type
+     */
+    public long getPieceBitBoard(final Alliance alliance, final Piece.PieceType pieceType) {
+
+        return this.pieceBitBoards[BitBoards.pieceIndex(alliance, pieceType)];
+
+    }
+
+    /**
+     * A method to get the bitboard of every tile occupied by a given alliance
+     */
+    public long getOccupancy(final Alliance alliance) {
+
+        return alliance.isWhite() ? this.whiteOccupancy : this.blackOccupancy;
+
+    }
+
+    /**
+     * A method to get the bitboard of every occupied tile on the board
+     */
+    public long getOccupancy() {
+
+        return this.allOccupancy;
+
+    }
+
+    /**
+     * A method to check whether a tile is occupied by testing the occupancy bitboard instead of the tile object
+     */
+    public boolean isTileOccupied(final int tileCoordinate) {
+
+        return BitBoards.isSet(this.allOccupancy, tileCoordinate);
+
+    }
+
+    /**
+     * A method to get the piece standing on a tile, or null if the tile is empty
+     */
+    public Piece getPiece(final int tileCoordinate) {
+
+        return this.gameBoard[tileCoordinate].getPiece();
+
+    }
+
+    /**
+     * A method to get the tiles attacked by every piece on the board
+     */
+    public AttackMap getAttackMap() {
+
+        return this.attackMap.get();
+
+    }
+
+    /**
+     * A method to get the move set cache the pieces of this board take their moves from, null when there is none
+     */
+    public MoveSetCache getMoveSetCache() {
+
+        return this.moveSetCache;
+
+    }
+
+    /**
+     * A method to get a bitboard of every piece of the given alliance that attacks a tile. It looks outwards from the
+     * tile with each piece type's attack pattern, so no moves have to be generated
+     */
+    public long getAttackersTo(final int tileCoordinate, final Alliance byAlliance) {
+
+        return getAttackersTo(tileCoordinate, byAlliance, this.allOccupancy);
+
+    }
+
+    /**
+     * A method to get a bitboard of every piece of the given alliance that would attack a tile if the board held the
+     * given occupancy, which only changes what the sliding pieces see. It tells whether a move leaves a king attacked
+     * without executing the move, a piece the move captures has to be removed from the result by the caller
+     */
+    public long getAttackersTo(final int tileCoordinate, final Alliance byAlliance, final long occupancy) {
+
+        final long queens = getPieceBitBoard(byAlliance, Piece.PieceType.QUEEN);
+
+        //A pawn of byAlliance attacks the tile when it stands where an opponent pawn on the tile would attack
+        return (BitBoards.pawnAttacks(byAlliance.ordinal() ^ 1, tileCoordinate) &
+                getPieceBitBoard(byAlliance, Piece.PieceType.PAWN)) |
+                (BitBoards.knightAttacks(tileCoordinate) & getPieceBitBoard(byAlliance, Piece.PieceType.KNIGHT)) |
+                (BitBoards.kingAttacks(tileCoordinate) & getPieceBitBoard(byAlliance, Piece.PieceType.KING)) |
+                (MagicBitBoards.bishopAttacks(tileCoordinate, occupancy) &
+                        (getPieceBitBoard(byAlliance, Piece.PieceType.BISHOP) | queens)) |
+                (MagicBitBoards.rookAttacks(tileCoordinate, occupancy) &
+                        (getPieceBitBoard(byAlliance, Piece.PieceType.ROOK) | queens));
+
+    }
+
+    /**
+     * A method to get the pieces of an alliance that are the only piece between their king and an opponent slider, so
+     * they may not leave the line through the king and themselves
+     */
+    public long getPinnedPieces(final Alliance alliance) {
+
+        final Alliance opponent = alliance.isWhite() ? Alliance.BLACK : Alliance.WHITE;
+        final int kingTile = BitBoards.firstSquare(getPieceBitBoard(alliance, Piece.PieceType.KING));
+        final long queens = getPieceBitBoard(opponent, Piece.PieceType.QUEEN);
+        //Opponent sliders that would attack the king on an empty board
+        final long snipers = (MagicBitBoards.rookAttacks(kingTile, BitBoards.EMPTY) &
+                (getPieceBitBoard(opponent, Piece.PieceType.ROOK) | queens)) |
+                (MagicBitBoards.bishopAttacks(kingTile, BitBoards.EMPTY) &
+                        (getPieceBitBoard(opponent, Piece.PieceType.BISHOP) | queens));
+        long pinned = BitBoards.EMPTY;
+
+        for (long remaining = snipers; remaining != 0; remaining = BitBoards.popFirstSquare(remaining)) {
+
+            final long blockers = BitBoards.between(kingTile, BitBoards.firstSquare(remaining)) & this.allOccupancy;
+
+            if (blockers != 0 && BitBoards.popFirstSquare(blockers) == 0) {
+                pinned |= blockers & getOccupancy(alliance);
+            }
+
+        }
+
+        return pinned;
+
+    }
+
+    /**
+     * A method to check whether any piece of the given alliance attacks a tile, stopping at the first attacker found
+     */
+    public boolean isSquareAttacked(final int tileCoordinate, final Alliance byAlliance) {
+
+        final long queens = getPieceBitBoard(byAlliance, Piece.PieceType.QUEEN);
+
+        return (BitBoards.pawnAttacks(byAlliance.ordinal() ^ 1, tileCoordinate) &
+                getPieceBitBoard(byAlliance, Piece.PieceType.PAWN)) != 0 ||
+                (BitBoards.knightAttacks(tileCoordinate) & getPieceBitBoard(byAlliance, Piece.PieceType.KNIGHT)) != 0 ||
+                (BitBoards.kingAttacks(tileCoordinate) & getPieceBitBoard(byAlliance, Piece.PieceType.KING)) != 0 ||
+                (MagicBitBoards.bishopAttacks(tileCoordinate, this.allOccupancy) &
+                        (getPieceBitBoard(byAlliance, Piece.PieceType.BISHOP) | queens)) != 0 ||
+                (MagicBitBoards.rookAttacks(tileCoordinate, this.allOccupancy) &
+                        (getPieceBitBoard(byAlliance, Piece.PieceType.ROOK) | queens)) != 0;
+
+    }
+
+    /**
+     * A method to get the mobility of an alliance, the number of tiles its pieces other than pawns can move to
+     */
+    public int getMobility(final Alliance alliance) {
+
+        return getAttackMap().getMobility(getOccupancy(alliance) & ~getPieceBitBoard(alliance, Piece.PieceType.PAWN),
+                alliance);
 
     }
 
     /**
      * A method to combine every individual pieces list of legal moves and create a collection of legal moves
-     * for each alliance
+     * for each alliance. Every piece but a pawn builds its moves from the attack map, which a board derived by a move
+     * carries over from the previous board, so only the pieces the move affected have their attacks worked out again
      */
-    private Collection<Move> calculateLegalMoves(final Collection<Piece> pieces) {
+    private Collection<Move> calculateLegalMoves(final Alliance alliance) {
 
         final List<Move> legalMoves = new ArrayList<>();
 
-        for (final Piece piece : pieces) {
-            //Using the for loop and this statement to get a collection and add all the elements into the legal
-            //moves variable
-            legalMoves.addAll(piece.calculateLegalMoves(this));
+        for (long pieces = getOccupancy(alliance); pieces != 0; pieces = BitBoards.popFirstSquare(pieces)) {
+
+            legalMoves.addAll(getPiece(BitBoards.firstSquare(pieces)).calculateLegalMoves(this));
 
         }
 
@@ -116,54 +429,110 @@ public class Board {
     /**
      * A method to track both White and Black alliance's current pieces on the board
      */
-    private static Collection<Piece> calculateActivePieces(final List<Tile> gameBoard, final Alliance alliance) {
+    private static Collection<Piece> calculateActivePieces(final Tile[] gameBoard, final long occupancy) {
 
-        final List<Piece> activePieces = new ArrayList<>();
+        final List<Piece> activePieces = new ArrayList<>(BitBoards.count(occupancy));
 
-        //Using a for loop to check whether there is a piece on a tile and if so the piece is added to the list of
-        //active pieces
-        for (final Tile tile : gameBoard) {
-            if (tile.isTileOccupied()) {
+        //Only the tiles set in the alliance's occupancy bitboard are visited instead of scanning all 64 tiles
+        for (long remaining = occupancy; remaining != 0; remaining = BitBoards.popFirstSquare(remaining)) {
 
-                final Piece piece = tile.getPiece();
+            activePieces.add(gameBoard[BitBoards.firstSquare(remaining)].getPiece());
 
-                if (piece.getPieceAlliance() == alliance) {
+        }
 
-                    activePieces.add(piece);
+        return ImmutableList.copyOf(activePieces);
 
-                }
+    }
+
+    /**
+     * A method to work out the castling rights from the kings and rooks that are still on their starting tiles and
+     * have not made their first move yet
+     */
+    private static int calculateCastlingRights(final Tile[] gameBoard) {
+
+        int castlingRights = 0;
 
+        if (isUnmovedPiece(gameBoard, 60, Alliance.WHITE, Piece.PieceType.KING)) {
+            if (isUnmovedPiece(gameBoard, 63, Alliance.WHITE, Piece.PieceType.ROOK)) {
+                castlingRights |= BoardUtils.WHITE_KING_SIDE_CASTLE;
             }
+            if (isUnmovedPiece(gameBoard, 56, Alliance.WHITE, Piece.PieceType.ROOK)) {
+                castlingRights |= BoardUtils.WHITE_QUEEN_SIDE_CASTLE;
+            }
+        }
 
+        if (isUnmovedPiece(gameBoard, 4, Alliance.BLACK, Piece.PieceType.KING)) {
+            if (isUnmovedPiece(gameBoard, 7, Alliance.BLACK, Piece.PieceType.ROOK)) {
+                castlingRights |= BoardUtils.BLACK_KING_SIDE_CASTLE;
+            }
+            if (isUnmovedPiece(gameBoard, 0, Alliance.BLACK, Piece.PieceType.ROOK)) {
+                castlingRights |= BoardUtils.BLACK_QUEEN_SIDE_CASTLE;
+            }
         }
 
-        return ImmutableList.copyOf(activePieces);
+        return castlingRights;
+
+    }
+
+    private static boolean isUnmovedPiece(final Tile[] gameBoard, final int tileCoordinate,
+                                          final Alliance alliance, final Piece.PieceType pieceType) {
+
+        final Piece piece = gameBoard[tileCoordinate].getPiece();
+        return piece != null && piece.isFirstMove() && piece.getPieceAlliance() == alliance &&
+                piece.getPieceType() == pieceType;
 
     }
 
     /**
-     * A method to get a tile's coordinate when called and return the coordinate
+     * A method to hash a position from scratch, only used when a board is not derived from a previous board by a move
      */
-    public Tile getTile(final int tileCoordinate) {
+    private static long calculateZobristKey(final long[] pieceBitBoards, final Alliance nextMoveMaker,
+                                            final int castlingRights, final Pawn enPassantPawn) {
+
+        long key = 0L;
+
+        for (int pieceIndex = 0; pieceIndex < pieceBitBoards.length; pieceIndex++) {
+
+            for (long pieces = pieceBitBoards[pieceIndex]; pieces != 0; pieces = BitBoards.popFirstSquare(pieces)) {
+
+                key ^= Zobrist.pieceKey(pieceIndex, BitBoards.firstSquare(pieces));
 
-        return gameBoard.get(tileCoordinate);
+            }
+
+        }
+
+        if (nextMoveMaker.isBlack()) {
+            key ^= Zobrist.blackToMoveKey();
+        }
+
+        return key ^ Zobrist.castlingKey(castlingRights) ^ Zobrist.enPassantKey(enPassantPawn);
 
     }
 
     /**
-     * A method that populates a list of tiles numbered 0 to 63 that will represent the chess board
-     * Making use of Immutable List to prevent from anyone changing the amount of tiles on the board
+     * A method to combine the piece bitboards of an alliance into one occupancy bitboard
      */
-    private static List<Tile> createGameBoard(final Builder builder) {
-        final Tile[] tiles = new Tile[BoardUtils.NUM_TILES];
+    private static long calculateOccupancy(final long[] pieceBitBoards, final Alliance alliance) {
+
+        long occupancy = BitBoards.EMPTY;
+
+        for (final Piece.PieceType pieceType : Piece.PieceType.values()) {
+
+            occupancy |= pieceBitBoards[BitBoards.pieceIndex(alliance, pieceType)];
 
-        //Using a for loop to map the tiles on the board from the list
-        for (int i = 0; i < BoardUtils.NUM_TILES; i++) {
-            //Getting the piece that is associated with a specific start tile and create it with that piece on it
-            tiles[i] = Tile.createTile(i, builder.boardConfig.get(i));
         }
 
-        return ImmutableList.copyOf(tiles);
+        return occupancy;
+
+    }
+
+    /**
+     * A method to get a tile's coordinate when called and return the coordinate
+     */
+    public Tile getTile(final int tileCoordinate) {
+
+        return this.gameBoard[tileCoordinate];
+
     }
 
     /**
@@ -174,40 +543,40 @@ public class Board {
         final Builder builder = new Builder();
 
         //Black Alliance layout
-        builder.setPiece(new Rook(Alliance.BLACK, 0));
-        builder.setPiece(new Knight(Alliance.BLACK, 1));
-        builder.setPiece(new Bishop(Alliance.BLACK, 2));
-        builder.setPiece(new Queen(Alliance.BLACK, 3));
-        builder.setPiece(new King(Alliance.BLACK, 4));
-        builder.setPiece(new Bishop(Alliance.BLACK, 5));
-        builder.setPiece(new Knight(Alliance.BLACK, 6));
-        builder.setPiece(new Rook(Alliance.BLACK, 7));
-        builder.setPiece(new Pawn(Alliance.BLACK, 8));
-        builder.setPiece(new Pawn(Alliance.BLACK, 9));
-        builder.setPiece(new Pawn(Alliance.BLACK, 10));
-        builder.setPiece(new Pawn(Alliance.BLACK, 11));
-        builder.setPiece(new Pawn(Alliance.BLACK, 12));
-        builder.setPiece(new Pawn(Alliance.BLACK, 13));
-        builder.setPiece(new Pawn(Alliance.BLACK, 14));
-        builder.setPiece(new Pawn(Alliance.BLACK, 15));
+        builder.setPiece(PieceUtils.getRook(Alliance.BLACK, 0, true));
+        builder.setPiece(PieceUtils.getKnight(Alliance.BLACK, 1, true));
+        builder.setPiece(PieceUtils.getBishop(Alliance.BLACK, 2, true));
+        builder.setPiece(PieceUtils.getQueen(Alliance.BLACK, 3, true));
+        builder.setPiece(PieceUtils.getKing(Alliance.BLACK, 4, true));
+        builder.setPiece(PieceUtils.getBishop(Alliance.BLACK, 5, true));
+        builder.setPiece(PieceUtils.getKnight(Alliance.BLACK, 6, true));
+        builder.setPiece(PieceUtils.getRook(Alliance.BLACK, 7, true));
+        builder.setPiece(PieceUtils.getPawn(Alliance.BLACK, 8, true));
+        builder.setPiece(PieceUtils.getPawn(Alliance.BLACK, 9, true));
+        builder.setPiece(PieceUtils.getPawn(Alliance.BLACK, 10, true));
+        builder.setPiece(PieceUtils.getPawn(Alliance.BLACK, 11, true));
+        builder.setPiece(PieceUtils.getPawn(Alliance.BLACK, 12, true));
+        builder.setPiece(PieceUtils.getPawn(Alliance.BLACK, 13, true));
+        builder.setPiece(PieceUtils.getPawn(Alliance.BLACK, 14, true));
+        builder.setPiece(PieceUtils.getPawn(Alliance.BLACK, 15, true));
 
         //White Alliance Layout
-        builder.setPiece(new Rook(Alliance.WHITE, 56));
-        builder.setPiece(new Knight(Alliance.WHITE, 57));
-        builder.setPiece(new Bishop(Alliance.WHITE, 58));
-        builder.setPiece(new Queen(Alliance.WHITE, 59));
-        builder.setPiece(new King(Alliance.WHITE, 60));
-        builder.setPiece(new Bishop(Alliance.WHITE, 61));
-        builder.setPiece(new Knight(Alliance.WHITE, 62));
-        builder.setPiece(new Rook(Alliance.WHITE, 63));
-        builder.setPiece(new Pawn(Alliance.WHITE, 48));
-        builder.setPiece(new Pawn(Alliance.WHITE, 49));
-        builder.setPiece(new Pawn(Alliance.WHITE, 50));
-        builder.setPiece(new Pawn(Alliance.WHITE, 51));
-        builder.setPiece(new Pawn(Alliance.WHITE, 52));
-        builder.setPiece(new Pawn(Alliance.WHITE, 53));
-        builder.setPiece(new Pawn(Alliance.WHITE, 54));
-        builder.setPiece(new Pawn(Alliance.WHITE, 55));
+        builder.setPiece(PieceUtils.getRook(Alliance.WHITE, 56, true));
+        builder.setPiece(PieceUtils.getKnight(Alliance.WHITE, 57, true));
+        builder.setPiece(PieceUtils.getBishop(Alliance.WHITE, 58, true));
+        builder.setPiece(PieceUtils.getQueen(Alliance.WHITE, 59, true));
+        builder.setPiece(PieceUtils.getKing(Alliance.WHITE, 60, true));
+        builder.setPiece(PieceUtils.getBishop(Alliance.WHITE, 61, true));
+        builder.setPiece(PieceUtils.getKnight(Alliance.WHITE, 62, true));
+        builder.setPiece(PieceUtils.getRook(Alliance.WHITE, 63, true));
+        builder.setPiece(PieceUtils.getPawn(Alliance.WHITE, 48, true));
+        builder.setPiece(PieceUtils.getPawn(Alliance.WHITE, 49, true));
+        builder.setPiece(PieceUtils.getPawn(Alliance.WHITE, 50, true));
+        builder.setPiece(PieceUtils.getPawn(Alliance.WHITE, 51, true));
+        builder.setPiece(PieceUtils.getPawn(Alliance.WHITE, 52, true));
+        builder.setPiece(PieceUtils.getPawn(Alliance.WHITE, 53, true));
+        builder.setPiece(PieceUtils.getPawn(Alliance.WHITE, 54, true));
+        builder.setPiece(PieceUtils.getPawn(Alliance.WHITE, 55, true));
 
         //White to move first
         builder.setMoveMaker(Alliance.WHITE);
@@ -218,30 +587,100 @@ public class Board {
      * A method to combine all the legal moves of both the white and black player
      */
     public Iterable<Move> getAllLegalMoves() {
-        return Iterables.unmodifiableIterable(Iterables.concat(this.whitePlayer.getLegalMoves(), this.blackPlayer.getLegalMoves()));
+        return Iterables.unmodifiableIterable(Iterables.concat(whitePlayer().getLegalMoves(),
+                blackPlayer().getLegalMoves()));
     }
 
     /**
-     * Creating a class making use of the Builder Pattern to be able to create the chess board
+     * A builder for boards. The tiles and piece bitboards are kept in plain arrays that are updated one tile at a time,
+     * so a board derived from another board by a move only has to change the tiles the move touches
      */
     public static class Builder {
 
-        Map<Integer, Piece> boardConfig;
+        Tile[] boardConfig;
+        long[] pieceBitBoards;
+        //Set once a board was built from the arrays, the next change copies them first so that board never changes
+        boolean isShared;
         Alliance nextMoveMaker;
         Pawn enPassantPawn;
+        long zobristKey;
+        boolean hasZobristKey;
+        int castlingRights;
+        boolean hasCastlingRights;
+        //The attack map of the board this builder started from and every tile changed since, null and empty for a
+        //builder that did not start from a board or started from one whose map was never calculated
+        AttackMap previousAttackMap;
+        long changedTiles;
+        MoveSetCache moveSetCache;
+        int halfmoveClock;
+        PositionHistory positionHistory = PositionHistory.EMPTY;
 
         public Builder() {
 
-            this.boardConfig = new HashMap<>();
+            this.boardConfig = new Tile[BoardUtils.NUM_TILES];
+            this.pieceBitBoards = new long[BitBoards.NUM_PIECE_INDICES];
+
+            for (int i = 0; i < BoardUtils.NUM_TILES; i++) {
+                this.boardConfig[i] = Tile.createTile(i, null);
+            }
+
+        }
+
+        /**
+         * A builder starting from the position of an existing board, used by moves to derive the next board. The en
+         * passant pawn, the move maker, the halfmove clock and the history are not carried over since every move sets
+         * them again
+         */
+        Builder(final Board board) {
+
+            this.boardConfig = board.gameBoard;
+            this.pieceBitBoards = board.pieceBitBoards;
+            this.isShared = true;
+            //Only a finished map is carried over, waiting on the previous board's map would keep that board alive
+            this.previousAttackMap = board.attackMap.getIfCalculated();
+            this.moveSetCache = board.moveSetCache;
 
         }
 
         /**
-         * A method to set a certain piece on their initial tile at the start of a chess match
+         * A method to set a certain piece on their initial tile at the start of a chess match, replacing any piece
+         * already on that tile
          */
         public Builder setPiece(final Piece piece) {
 
-            this.boardConfig.put(piece.getPiecePosition(), piece);
+            final int tileCoordinate = piece.getPiecePosition();
+            removePiece(tileCoordinate);
+            this.pieceBitBoards[BitBoards.pieceIndex(piece.getPieceAlliance(), piece.getPieceType())] |=
+                    BitBoards.squareMask(tileCoordinate);
+            this.boardConfig[tileCoordinate] = Tile.createTile(tileCoordinate, piece);
+            return this;
+
+        }
+
+        /**
+         * A method to empty a tile, used by moves for the tile a piece leaves and for a piece captured en passant
+         */
+        Builder removePiece(final int tileCoordinate) {
+
+            if (this.isShared) {
+
+                this.boardConfig = this.boardConfig.clone();
+                this.pieceBitBoards = this.pieceBitBoards.clone();
+                this.isShared = false;
+
+            }
+
+            final Piece piece = this.boardConfig[tileCoordinate].getPiece();
+            this.changedTiles |= BitBoards.squareMask(tileCoordinate);
+
+            if (piece != null) {
+
+                this.pieceBitBoards[BitBoards.pieceIndex(piece.getPieceAlliance(), piece.getPieceType())] &=
+                        ~BitBoards.squareMask(tileCoordinate);
+                this.boardConfig[tileCoordinate] = Tile.createTile(tileCoordinate, null);
+
+            }
+
             return this;
 
         }
@@ -267,5 +706,117 @@ public class Board {
         public void setEnPassantPawn(Pawn enPassantPawn) {
             this.enPassantPawn = enPassantPawn;
         }
+
+        /**
+         * A method to let the board and every board derived from it by a move take the moves of its pieces other than
+         * pawns from a cache, so positions that look the same around a piece share its moves
+         */
+        public Builder setMoveSetCache(final MoveSetCache moveSetCache) {
+
+            this.moveSetCache = moveSetCache;
+            return this;
+
+        }
+
+        /**
+         * A method used by moves to hand over the key they updated incrementally so the new board is not rehashed
+         */
+        Builder setZobristKey(final long zobristKey) {
+
+            this.zobristKey = zobristKey;
+            this.hasZobristKey = true;
+            return this;
+
+        }
+
+        /**
+         * A method to set the number of moves since the last pawn move or capture, as given by a FEN string
+         */
+        public Builder setHalfmoveClock(final int halfmoveClock) {
+
+            this.halfmoveClock = halfmoveClock;
+            return this;
+
+        }
+
+        /**
+         * A method used by moves to hand over the previous board's history with the previous board's key pushed on it
+         */
+        Builder setPositionHistory(final PositionHistory positionHistory) {
+
+            this.positionHistory = positionHistory;
+            return this;
+
+        }
+
+        /**
+         * A method used by moves to hand over the castling rights they updated from the previous board's rights
+         */
+        Builder setCastlingRights(final int castlingRights) {
+
+            this.castlingRights = castlingRights;
+            this.hasCastlingRights = true;
+            return this;
+
+        }
+    }
+
+    /**
+     * The attack map of a board, calculated when first asked for. It is updated from the previous board's map when
+     * that map was already known, otherwise calculated from scratch. The board is only referenced until its map is
+     * calculated, so a board never keeps the boards it was derived from alive
+     */
+    private static final class LazyAttackMap implements Supplier<AttackMap> {
+
+        private final long changedTiles;
+        private AttackMap previousAttackMap;
+        private Board board;
+        private volatile AttackMap attackMap;
+
+        LazyAttackMap(final Board board, final AttackMap previousAttackMap, final long changedTiles) {
+
+            this.board = board;
+            this.previousAttackMap = previousAttackMap;
+            this.changedTiles = changedTiles;
+
+        }
+
+        @Override
+        public AttackMap get() {
+
+            AttackMap result = this.attackMap;
+
+            if (result == null) {
+
+                synchronized (this) {
+
+                    result = this.attackMap;
+
+                    if (result == null) {
+                        result = this.previousAttackMap == null ? AttackMap.calculate(this.board) :
+                                this.previousAttackMap.update(this.board, this.changedTiles);
+                        this.attackMap = result;
+                        this.board = null;
+                        this.previousAttackMap = null;
+                    }
+
+                }
+
+            }
+
+            return result;
+
+        }
+
+        /**
+         * A method to get the map if it was already calculated, or null without calculating it
+         */
+        AttackMap getIfCalculated() {
+
+            return this.attackMap;
+
+        }
+
     }
+
 }
@@ -1,5 +1,7 @@
 package com.chess.engine.board;
 
+import java.util.Arrays;
+
 public class BoardUtils {
 
     /**
@@ -57,6 +59,26 @@ public class BoardUtils {
     public static final int NUM_TILES = 64;
     public static final int NUM_TILES_PER_ROW = 8;
 
+    /**
+     * Flags for the four castling rights, combined into one int so they can be stored and hashed together
+     */
+    public static final int WHITE_KING_SIDE_CASTLE = 1;
+    public static final int WHITE_QUEEN_SIDE_CASTLE = 2;
+    public static final int BLACK_KING_SIDE_CASTLE = 4;
+    public static final int BLACK_QUEEN_SIDE_CASTLE = 8;
+    public static final int ALL_CASTLING_RIGHTS = 15;
+
+    /**
+     * The castling rights that survive a move touching each tile, a king or rook leaving its starting tile or a rook
+     * being captured on it removes the rights that depend on that piece
+     */
+    private static final int[] CASTLING_RIGHTS_MASKS = initCastlingRightsMasks();
+
+    /**
+     * The algebraic name of every tile, tile 0 is a8 in the top left corner and tile 63 is h1 in the bottom right
+     */
+    private static final String[] ALGEBRAIC_NOTATION = initAlgebraicNotation();
+
     //BoardUtils constructor with a runtimeException to prevent a user from instantiating this class
     private BoardUtils() {
         throw new RuntimeException("You cannot instantiate me!");
@@ -95,6 +117,75 @@ public class BoardUtils {
 
     }
 
+    /**
+     * A method to name every tile by its column letter and row number as seen from the White alliance's side
+     */
+    private static String[] initAlgebraicNotation() {
+
+        final String[] notation = new String[NUM_TILES];
+
+        for (int i = 0; i < NUM_TILES; i++) {
+            notation[i] = "" + (char) ('a' + i % NUM_TILES_PER_ROW) + (NUM_TILES_PER_ROW - i / NUM_TILES_PER_ROW);
+        }
+
+        return notation;
+
+    }
+
+    /**
+     * A method to get the algebraic name of a tile coordinate, for example 52 is e2
+     */
+    public static String getPositionAtCoordinate(final int coordinate) {
+
+        return ALGEBRAIC_NOTATION[coordinate];
+
+    }
+
+    /**
+     * A method to get the tile coordinate of an algebraic tile name, for example e2 is 52
+     */
+    public static int getCoordinateAtPosition(final String position) {
+
+        final int column = position.length() == 2 ? position.charAt(0) - 'a' : -1;
+        final int row = position.length() == 2 ? NUM_TILES_PER_ROW - (position.charAt(1) - '0') : -1;
+
+        if (column < 0 || column >= NUM_TILES_PER_ROW || row < 0 || row >= NUM_TILES_PER_ROW) {
+            throw new IllegalArgumentException("Not a valid tile: " + position);
+        }
+
+        return row * NUM_TILES_PER_ROW + column;
+
+    }
+
+    /**
+     * A method to set up the castling rights masks for the starting tiles of both kings and all four rooks
+     */
+    private static int[] initCastlingRightsMasks() {
+
+        final int[] masks = new int[NUM_TILES];
+        Arrays.fill(masks, ALL_CASTLING_RIGHTS);
+
+        masks[0] &= ~BLACK_QUEEN_SIDE_CASTLE;
+        masks[4] &= ~(BLACK_KING_SIDE_CASTLE | BLACK_QUEEN_SIDE_CASTLE);
+        masks[7] &= ~BLACK_KING_SIDE_CASTLE;
+        masks[56] &= ~WHITE_QUEEN_SIDE_CASTLE;
+        masks[60] &= ~(WHITE_KING_SIDE_CASTLE | WHITE_QUEEN_SIDE_CASTLE);
+        masks[63] &= ~WHITE_KING_SIDE_CASTLE;
+
+        return masks;
+
+    }
+
+    /**
+     * A method to get the castling rights left after a move from one tile to another
+     */
+    public static int updateCastlingRights(final int castlingRights, final int currentCoordinate,
+                                           final int destinationCoordinate) {
+
+        return castlingRights & CASTLING_RIGHTS_MASKS[currentCoordinate] & CASTLING_RIGHTS_MASKS[destinationCoordinate];
+
+    }
+
     /**
      * Method to check if the possible coordinate after applying the offset will still be on the board and
      * not out of bounds
@@ -0,0 +1,167 @@
+package com.chess.engine.board;
+
+import com.chess.engine.Alliance;
+import com.chess.engine.pieces.*;
+
+/**
+ * A class to create boards from FEN strings (Forsyth-Edwards Notation), the standard one line description of a chess
+ * position used by test suites and other engines
+ */
+public class FenUtilities {
+
+    //FenUtilities constructor with a runtimeException to prevent a user from instantiating this class
+    private FenUtilities() {
+        throw new RuntimeException("You cannot instantiate me!");
+    }
+
+    /**
+     * A method to create a board from a FEN string. The piece placement starts at the top left corner, which is tile 0
+     * on this board, so the tiles are filled in the order the FEN lists them
+     */
+    public static Board createGameFromFEN(final String fenString) {
+
+        return createGameFromFEN(fenString, null);
+
+    }
+
+    /**
+     * A method to create a board from a FEN string whose pieces, and those of every board derived from it, take their
+     * moves from the given move set cache
+     */
+    public static Board createGameFromFEN(final String fenString, final MoveSetCache moveSetCache) {
+
+        final String[] fenPartitions = fenString.trim().split("\\s+");
+
+        if (fenPartitions.length < 4) {
+            throw new IllegalArgumentException("Invalid FEN string: " + fenString);
+        }
+
+        final String castlingRights = fenPartitions[2];
+        final Board.Builder builder = new Board.Builder().setMoveSetCache(moveSetCache);
+        int tile = 0;
+
+        for (final char fenChar : fenPartitions[0].toCharArray()) {
+
+            if (fenChar == '/') {
+                continue;
+            }
+
+            if (Character.isDigit(fenChar)) {
+                tile += fenChar - '0';
+                continue;
+            }
+
+            if (tile >= BoardUtils.NUM_TILES) {
+                throw new IllegalArgumentException("Invalid FEN piece placement: " + fenPartitions[0]);
+            }
+
+            builder.setPiece(createPiece(fenChar, tile, castlingRights));
+            tile++;
+
+        }
+
+        if (tile != BoardUtils.NUM_TILES) {
+            throw new IllegalArgumentException("Invalid FEN piece placement: " + fenPartitions[0]);
+        }
+
+        final Alliance moveMaker = moveMaker(fenPartitions[1]);
+        builder.setMoveMaker(moveMaker);
+
+        //The FEN names the tile the jumping pawn skipped over, the board stores the pawn itself one tile further on
+        if (!fenPartitions[3].equals("-")) {
+
+            final int enPassantTile = BoardUtils.getCoordinateAtPosition(fenPartitions[3]);
+            final int jumpedPawnTile = enPassantTile - moveMaker.getDirection() * BoardUtils.NUM_TILES_PER_ROW;
+            final Alliance jumpedPawnAlliance = moveMaker.isWhite() ? Alliance.BLACK : Alliance.WHITE;
+            builder.setEnPassantPawn(PieceUtils.getPawn(jumpedPawnAlliance, jumpedPawnTile, false));
+
+        }
+
+        //The halfmove clock is optional, the positions it counts are not part of the FEN so the history starts empty
+        if (fenPartitions.length > 4) {
+            builder.setHalfmoveClock(parseHalfmoveClock(fenPartitions[4]));
+        }
+
+        return builder.build();
+
+    }
+
+    private static int parseHalfmoveClock(final String halfmoveClockString) {
+
+        try {
+
+            final int halfmoveClock = Integer.parseInt(halfmoveClockString);
+
+            if (halfmoveClock >= 0) {
+                return halfmoveClock;
+            }
+
+        } catch (final NumberFormatException e) {
+            //Reported below like any other invalid halfmove clock
+        }
+
+        throw new IllegalArgumentException("Invalid FEN halfmove clock: " + halfmoveClockString);
+
+    }
+
+    private static Alliance moveMaker(final String moveMakerString) {
+
+        if (moveMakerString.equals("w")) {
+            return Alliance.WHITE;
+        } else if (moveMakerString.equals("b")) {
+            return Alliance.BLACK;
+        }
+
+        throw new IllegalArgumentException("Invalid FEN side to move: " + moveMakerString);
+
+    }
+
+    /**
+     * A method to create the piece for a FEN character. Castling rights are stored on this board as kings and rooks
+     * that have not moved yet, so those pieces only get their first move when the FEN still grants the matching right
+     */
+    private static Piece createPiece(final char fenChar, final int tile, final String castlingRights) {
+
+        final Alliance alliance = Character.isUpperCase(fenChar) ? Alliance.WHITE : Alliance.BLACK;
+        final boolean isWhite = alliance.isWhite();
+
+        switch (Character.toLowerCase(fenChar)) {
+            case 'p':
+                return PieceUtils.getPawn(alliance, tile,
+                        isWhite ? BoardUtils.SEVENTH_ROW[tile] : BoardUtils.SECOND_ROW[tile]);
+            case 'n':
+                return PieceUtils.getKnight(alliance, tile, false);
+            case 'b':
+                return PieceUtils.getBishop(alliance, tile, false);
+            case 'r':
+                return PieceUtils.getRook(alliance, tile, isUnmovedRook(tile, castlingRights));
+            case 'q':
+                return PieceUtils.getQueen(alliance, tile, false);
+            case 'k':
+                return PieceUtils.getKing(alliance, tile, isWhite ?
+                        tile == 60 && (castlingRights.contains("K") || castlingRights.contains("Q")) :
+                        tile == 4 && (castlingRights.contains("k") || castlingRights.contains("q")));
+            default:
+                throw new IllegalArgumentException("Invalid FEN piece: " + fenChar);
+        }
+
+    }
+
+    private static boolean isUnmovedRook(final int tile, final String castlingRights) {
+
+        switch (tile) {
+            case 63:
+                return castlingRights.contains("K");
+            case 56:
+                return castlingRights.contains("Q");
+            case 7:
+                return castlingRights.contains("k");
+            case 0:
+                return castlingRights.contains("q");
+            default:
+                return false;
+        }
+
+    }
+
+}
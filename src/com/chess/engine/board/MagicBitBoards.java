@@ -0,0 +1,187 @@
+package com.chess.engine.board;
+
+/**
+ * Precomputed magic bitboard attack tables for the sliding pieces. For every tile the blockers that matter are masked
+ * out of the occupancy, multiplied by a magic number and shifted down to an index into that tile's attack table, so
+ * one sliding attack set costs a mask, a multiply, a shift and an array read.
+ * The tables are filled once when the class is loaded and never written again, which makes them safe to read from
+ * any number of threads.
+ */
+public class MagicBitBoards {
+
+    private static final int[][] ROOK_DIRECTIONS = {{-1, 0}, {1, 0}, {0, -1}, {0, 1}};
+    private static final int[][] BISHOP_DIRECTIONS = {{-1, -1}, {-1, 1}, {1, -1}, {1, 1}};
+
+    //Magic numbers found offline by a random search over sparse candidates, one per tile in tile coordinate order
+    private static final long[] ROOK_MAGICS = {
+            0x008000908064C000L, 0x0040200040001000L, 0x0180100080A0010AL, 0x8880041000800800L,
+            0x1200100201200804L, 0x0200020004011008L, 0x2180010000800600L, 0x0200005088210204L,
+            0x0400800040008021L, 0x0400400020005000L, 0x8240801000200080L, 0x8611001004200900L,
+            0x008180800C001800L, 0x0100800200800400L, 0x0A02000102000408L, 0x8020802300104280L,
+            0x0080004000402000L, 0xE010104000402000L, 0x0800808010002000L, 0xA280210008100100L,
+            0x0001818014000800L, 0xA002010100080400L, 0x0080240001020870L, 0x0001020004048845L,
+            0x0081826280004004L, 0x2020810900284000L, 0x0200100080802000L, 0x0200080080100080L,
+            0x8083080100100500L, 0x4406000901000400L, 0x0005020080800100L, 0x0090204200008114L,
+            0x0010400094800420L, 0x0900804000802002L, 0x0201001841002000L, 0x4100080080801000L,
+            0x4540040080800800L, 0x0002001004040020L, 0x0281195814001002L, 0x1240800040800100L,
+            0x0880042000524004L, 0x02C080410206002CL, 0x0801200241050010L, 0x8400080010008080L,
+            0x0008000500090010L, 0x0082009084020008L, 0x4012000108020004L, 0x9000104D08860004L,
+            0x2004204114800100L, 0x0148802112400300L, 0x0202842000100880L, 0x001B080080900080L,
+            0x001A002008100600L, 0x0004008004020080L, 0x5181000600040300L, 0x0000044401128A00L,
+            0x8044110480002441L, 0x2008110084402202L, 0x90806005090010C1L, 0x000420310A004A42L,
+            0x0023001004020801L, 0x0882001008040102L, 0x000230088118020CL, 0x0000019025040042L
+    };
+
+    private static final long[] BISHOP_MAGICS = {
+            0x0045010808008680L, 0x2002080204004898L, 0x0210009A10400006L, 0x0824050200810200L,
+            0x0006061105004090L, 0x00010108C0000000L, 0x0814040282104004L, 0x0012012201106800L,
+            0x10823014100C1040L, 0x0080C2088802808CL, 0x0281108410404000L, 0x0101212041826200L,
+            0x0020141028221058L, 0x2201020202200202L, 0x000082A801482000L, 0x0000008401411044L,
+            0x0007103014300404L, 0x0002091110010100L, 0x42140012040C0808L, 0x0800808802004020L,
+            0x90C4004210140000L, 0x0800200900A01000L, 0x00D0400201108810L, 0x80820183814412A0L,
+            0x00A01008202202B4L, 0x01C2021A09500402L, 0x0084440208042400L, 0x800400400C090100L,
+            0xBA10040010802100L, 0xD182009006005000L, 0x5011021001009004L, 0x0020420200510400L,
+            0x0292104000468800L, 0x00043009091C0500L, 0x0280441000020025L, 0x0042820080080080L,
+            0x0440101010010040L, 0x1000900100808080L, 0x0108108120089800L, 0x0044010200012682L,
+            0xC002500420900400L, 0x0040482210710800L, 0x0002060024000200L, 0x0281020A44000800L,
+            0xA0021200A4000200L, 0x0001301000840840L, 0x2868500108444220L, 0x0004111041000200L,
+            0x8044020842080200L, 0x0000220104210200L, 0x0000021201044000L, 0x0000280884040028L,
+            0x4012114010858003L, 0x0000081004082B88L, 0x3892700508208002L, 0x00220A041B060400L,
+            0x0812020284014881L, 0x010434A282103100L, 0x0490400824020800L, 0x4A20002C00208800L,
+            0x000000A011020200L, 0x4002940A02482202L, 0x5100100202140406L, 0x02102000840540C1L
+    };
+
+    private static final long[] ROOK_MASKS = new long[BoardUtils.NUM_TILES];
+    private static final int[] ROOK_SHIFTS = new int[BoardUtils.NUM_TILES];
+    private static final long[][] ROOK_ATTACKS = new long[BoardUtils.NUM_TILES][];
+
+    private static final long[] BISHOP_MASKS = new long[BoardUtils.NUM_TILES];
+    private static final int[] BISHOP_SHIFTS = new int[BoardUtils.NUM_TILES];
+    private static final long[][] BISHOP_ATTACKS = new long[BoardUtils.NUM_TILES][];
+
+    static {
+        initSlider(ROOK_DIRECTIONS, ROOK_MASKS, ROOK_MAGICS, ROOK_SHIFTS, ROOK_ATTACKS);
+        initSlider(BISHOP_DIRECTIONS, BISHOP_MASKS, BISHOP_MAGICS, BISHOP_SHIFTS, BISHOP_ATTACKS);
+    }
+
+    //MagicBitBoards constructor with a runtimeException to prevent a user from instantiating this class
+    private MagicBitBoards() {
+        throw new RuntimeException("You cannot instantiate me!");
+    }
+
+    /**
+     * A method to get every tile a rook on the given tile attacks with the given pieces on the board
+     */
+    public static long rookAttacks(final int tileCoordinate, final long occupancy) {
+
+        return ROOK_ATTACKS[tileCoordinate][(int) (((occupancy & ROOK_MASKS[tileCoordinate]) *
+                ROOK_MAGICS[tileCoordinate]) >>> ROOK_SHIFTS[tileCoordinate])];
+
+    }
+
+    /**
+     * A method to get every tile a bishop on the given tile attacks with the given pieces on the board
+     */
+    public static long bishopAttacks(final int tileCoordinate, final long occupancy) {
+
+        return BISHOP_ATTACKS[tileCoordinate][(int) (((occupancy & BISHOP_MASKS[tileCoordinate]) *
+                BISHOP_MAGICS[tileCoordinate]) >>> BISHOP_SHIFTS[tileCoordinate])];
+
+    }
+
+    /**
+     * A method to get every tile a queen on the given tile attacks, which is the rook and bishop attacks combined
+     */
+    public static long queenAttacks(final int tileCoordinate, final long occupancy) {
+
+        return rookAttacks(tileCoordinate, occupancy) | bishopAttacks(tileCoordinate, occupancy);
+
+    }
+
+    /**
+     * A method to fill the attack table of every tile for one kind of slider using its magic numbers
+     */
+    private static void initSlider(final int[][] directions, final long[] masks, final long[] magics,
+                                   final int[] shifts, final long[][] attacks) {
+
+        for (int tile = 0; tile < BoardUtils.NUM_TILES; tile++) {
+
+            final long mask = relevantOccupancyMask(tile, directions);
+            final int bits = BitBoards.count(mask);
+            final long[] table = new long[1 << bits];
+            final boolean[] filled = new boolean[table.length];
+
+            //Enumerate every subset of the mask (the carry-rippler trick) and store the attack set it produces
+            long subset = BitBoards.EMPTY;
+            do {
+                final int index = (int) ((subset * magics[tile]) >>> (64 - bits));
+                final long tileAttacks = slidingAttacks(tile, subset, directions);
+                if (filled[index] && table[index] != tileAttacks) {
+                    throw new IllegalStateException("Magic number for tile " + tile + " is not valid");
+                }
+                filled[index] = true;
+                table[index] = tileAttacks;
+                subset = (subset - mask) & mask;
+            } while (subset != 0);
+
+            masks[tile] = mask;
+            shifts[tile] = 64 - bits;
+            attacks[tile] = table;
+        }
+
+    }
+
+    /**
+     * A method to get the tiles whose occupancy can change a slider's attacks, which are the tiles on its rays except
+     * the last tile before the edge of the board
+     */
+    private static long relevantOccupancyMask(final int tileCoordinate, final int[][] directions) {
+
+        long mask = BitBoards.EMPTY;
+
+        for (final int[] direction : directions) {
+            int row = tileCoordinate / BoardUtils.NUM_TILES_PER_ROW + direction[0];
+            int column = tileCoordinate % BoardUtils.NUM_TILES_PER_ROW + direction[1];
+            while (isOnBoard(row + direction[0], column + direction[1])) {
+                mask |= BitBoards.squareMask(row * BoardUtils.NUM_TILES_PER_ROW + column);
+                row += direction[0];
+                column += direction[1];
+            }
+        }
+
+        return mask;
+
+    }
+
+    /**
+     * A method to walk every ray tile by tile, stopping on the first occupied tile, used only to build the tables
+     */
+    private static long slidingAttacks(final int tileCoordinate, final long occupancy, final int[][] directions) {
+
+        long attacks = BitBoards.EMPTY;
+
+        for (final int[] direction : directions) {
+            int row = tileCoordinate / BoardUtils.NUM_TILES_PER_ROW + direction[0];
+            int column = tileCoordinate % BoardUtils.NUM_TILES_PER_ROW + direction[1];
+            while (isOnBoard(row, column)) {
+                final long target = BitBoards.squareMask(row * BoardUtils.NUM_TILES_PER_ROW + column);
+                attacks |= target;
+                if ((occupancy & target) != 0) {
+                    break;
+                }
+                row += direction[0];
+                column += direction[1];
+            }
+        }
+
+        return attacks;
+
+    }
+
+    private static boolean isOnBoard(final int row, final int column) {
+
+        return row >= 0 && row < BoardUtils.NUM_TILES_PER_ROW && column >= 0 && column < BoardUtils.NUM_TILES_PER_ROW;
+
+    }
+
+}
@@ -2,7 +2,9 @@ package com.chess.engine.board;
 
 import com.chess.engine.pieces.Pawn;
 import com.chess.engine.pieces.Piece;
+import com.chess.engine.pieces.PieceUtils;
 import com.chess.engine.pieces.Rook;
+import com.chess.engine.player.Player;
 
 import static com.chess.engine.board.Board.*;
 
@@ -94,31 +96,66 @@ public abstract class Move {
 
     public Board execute() {
 
-        final Builder builder = new Builder();
-        //Go through all the current player's pieces and all the pieces that aren't moved will be placed at the
-        //same spot on the new board
-        for (final Piece piece : this.board.currentPlayer().getActivePieces()) {
-            //TODO hashcode and equals for pieces
-            if (!this.movedPiece.equals(piece)) {
+        final Builder builder = createTransitionBuilder();
+        //Move the moved piece to the new destination tile
+        builder.setPiece(this.movedPiece.movePiece(this));
 
-                builder.setPiece(piece);
+        return builder.build();
+    }
 
-            }
+    /**
+     * A method to start the next board from the current one. Only the tiles this move touches are changed: the moved
+     * piece is lifted off its tile and a captured piece is removed, every other tile is shared with the current board
+     */
+    Builder createTransitionBuilder() {
 
+        final Builder builder = new Builder(this.board);
+        builder.removePiece(getCurrentCoordinate());
+
+        if (isAttack()) {
+            builder.removePiece(getAttackedPiece().getPiecePosition());
+        }
+
+        //Change the next move maker to the other player to equally allow each player to play
+        builder.setMoveMaker(this.board.currentPlayer().getOpponent().getAlliance());
+        builder.setCastlingRights(BoardUtils.updateCastlingRights(this.board.getCastlingRights(),
+                getCurrentCoordinate(), this.destinationCoordinate));
+        builder.setZobristKey(calculateZobristKey());
+
+        //A pawn move or a capture can never be undone, so no position before it can be repeated
+        if (isAttack() || this.movedPiece.getPieceType() == Piece.PieceType.PAWN) {
+            builder.setHalfmoveClock(0);
+        } else {
+            builder.setHalfmoveClock(this.board.getHalfmoveClock() + 1);
+            builder.setPositionHistory(this.board.getPositionHistory().push(this.board.getZobristKey()));
         }
 
-        //Go through all the opponent player's pieces and place them at the same spot on the new board
-        for (final Piece piece : this.board.currentPlayer().getOpponent().getActivePieces()) {
+        return builder;
+
+    }
+
+    /**
+     * A method to derive the new board's Zobrist key from the current board's key by XOR-ing out what this move removes
+     * and XOR-ing in what it adds, instead of rehashing all 64 tiles
+     */
+    long calculateZobristKey() {
 
-            builder.setPiece(piece);
+        final int currentCoordinate = getCurrentCoordinate();
+        final int castlingRights = this.board.getCastlingRights();
+        long key = this.board.getZobristKey();
 
+        key ^= Zobrist.pieceKey(this.movedPiece, currentCoordinate) ^
+                Zobrist.pieceKey(this.movedPiece, this.destinationCoordinate);
+
+        if (isAttack()) {
+            key ^= Zobrist.pieceKey(getAttackedPiece(), getAttackedPiece().getPiecePosition());
         }
-        //Move the moved piece to the new destination tile
-        builder.setPiece(this.movedPiece.movePiece(this));
-        //Change the next move maker to the other player to equally allow each player to play
-        builder.setMoveMaker(this.board.currentPlayer().getOpponent().getAlliance());
 
-        return builder.build();
+        key ^= Zobrist.castlingKey(castlingRights) ^ Zobrist.castlingKey(
+                BoardUtils.updateCastlingRights(castlingRights, currentCoordinate, this.destinationCoordinate));
+        key ^= Zobrist.enPassantKey(this.board.getEnPassantPawn());
+
+        return key ^ Zobrist.blackToMoveKey();
     }
 
 
@@ -171,11 +208,6 @@ public abstract class Move {
 
         }
 
-        @Override
-        public Board execute() {
-            return null;
-        }
-
         @Override
         public boolean isAttack() {
             return true;
@@ -226,26 +258,101 @@ public abstract class Move {
         //handle the en passant move and determine whether it can be applied or not
         @Override
         public Board execute() {
-            final Builder builder = new Builder();
-            for (final Piece piece : this.board.currentPlayer().getActivePieces()) {
-                if (!this.movedPiece.equals(piece)) {
-                    builder.setPiece(piece);
-                }
+            final Builder builder = createTransitionBuilder();
+            final Pawn movedPawn = (Pawn) this.movedPiece.movePiece(this);
+
+            builder.setPiece(movedPawn);
+            builder.setEnPassantPawn(movedPawn);
+            return builder.build();
+        }
+
+        //The jumped pawn becomes the new en passant pawn so its column is added to the key
+        @Override
+        long calculateZobristKey() {
+            return super.calculateZobristKey() ^ Zobrist.enPassantKey(this.destinationCoordinate);
+        }
+
+    }
+
+    /**
+     * A class for a pawn reaching the last row, it wraps the pawn move or pawn attack move that brought it there and
+     * replaces the pawn with the piece it is promoted to
+     */
+    public static final class pawnPromotion extends Move {
+
+        final Move decoratedMove;
+        final Piece promotionPiece;
+
+        public pawnPromotion(final Move decoratedMove, final Piece promotionPiece) {
+            super(decoratedMove.board, decoratedMove.movedPiece, decoratedMove.destinationCoordinate);
+            this.decoratedMove = decoratedMove;
+            this.promotionPiece = promotionPiece;
+        }
+
+        //The four promotions of one pawn to one tile only differ by the piece they promote to
+        @Override
+        public int hashCode() {
+            return 31 * this.decoratedMove.hashCode() + this.promotionPiece.getPieceType().hashCode();
+        }
+
+        @Override
+        public boolean equals(final Object other) {
+
+            if (this == other) {
+
+                return true;
 
             }
 
-            for (final Piece piece : this.board.currentPlayer().getOpponent().getActivePieces()) {
-                builder.setPiece(piece);
+            if (!(other instanceof pawnPromotion)) {
+
+                return false;
+
             }
 
-            final Pawn movedPawn = (Pawn) this.movedPiece.movePiece(this);
+            final pawnPromotion otherPromotion = (pawnPromotion) other;
+            return this.decoratedMove.equals(otherPromotion.decoratedMove) &&
+                    this.promotionPiece.getPieceType() == otherPromotion.promotionPiece.getPieceType();
 
-            builder.setPiece(movedPawn);
-            builder.setEnPassantPawn(movedPawn);
-            builder.setMoveMaker(this.board.currentPlayer().getOpponent().getAlliance());
+        }
+
+        public Piece getPromotionPiece() {
+
+            return this.promotionPiece;
+
+        }
+
+        @Override
+        public boolean isAttack() {
+            return this.decoratedMove.isAttack();
+        }
+
+        @Override
+        public Piece getAttackedPiece() {
+            return this.decoratedMove.getAttackedPiece();
+        }
+
+        //Remove the pawn and anything it captures, then put the promotion piece on the last row
+        @Override
+        public Board execute() {
+            final Builder builder = createTransitionBuilder();
+            builder.setPiece(this.promotionPiece);
             return builder.build();
         }
 
+        //The pawn never arrives on the destination tile, the promotion piece does
+        @Override
+        long calculateZobristKey() {
+            return super.calculateZobristKey() ^ Zobrist.pieceKey(this.movedPiece, this.destinationCoordinate) ^
+                    Zobrist.pieceKey(this.promotionPiece, this.destinationCoordinate);
+        }
+
+        @Override
+        public String toString() {
+            return BoardUtils.getPositionAtCoordinate(getCurrentCoordinate()) +
+                    BoardUtils.getPositionAtCoordinate(this.destinationCoordinate) + "=" + this.promotionPiece;
+        }
+
     }
 
     /**
@@ -279,25 +386,20 @@ public abstract class Move {
         @Override
         public Board execute() {
 
-            final Builder builder = new Builder();
-
-            for (final Piece piece : this.board.currentPlayer().getActivePieces()) {
-                if (!this.movedPiece.equals(piece) && !this.castleRook.equals(piece)) {
-                    builder.setPiece(piece);
-                }
-
-            }
-
-            for (final Piece piece : this.board.currentPlayer().getOpponent().getActivePieces()) {
-                builder.setPiece(piece);
-            }
-
+            final Builder builder = createTransitionBuilder();
+            builder.removePiece(this.castleRookStart);
             builder.setPiece(this.movedPiece.movePiece(this));
-            builder.setPiece(new Rook(this.castleRook.getPieceAlliance(), this.castleRookDestination));
-            builder.setMoveMaker(this.board.currentPlayer().getOpponent().getAlliance());
+            builder.setPiece(PieceUtils.getRook(this.castleRook.getPieceAlliance(), this.castleRookDestination, false));
             return builder.build();
         }
 
+        //The king's part of the move is handled by the default key update, the rook's jump is added on top of it
+        @Override
+        long calculateZobristKey() {
+            return super.calculateZobristKey() ^ Zobrist.pieceKey(this.castleRook, this.castleRookStart) ^
+                    Zobrist.pieceKey(this.castleRook, this.castleRookDestination);
+        }
+
     }
 
     public static final class kingSideCastleMove extends castleMove {
@@ -350,21 +452,71 @@ public abstract class Move {
 
         }
 
-        //A method to create a new move and add it to the list
+        /**
+         * A method to find the legal move from one tile to another, or the null move when there is none. The move is
+         * looked up in the move index of the player owning the piece on the current tile
+         */
         public static Move createMove(final Board board, final int currentCoordinate, final int destinationCoordinate) {
 
-            for (final Move move : board.getAllLegalMoves()) {
+            final Piece movedPiece = board.getPiece(currentCoordinate);
+
+            if (movedPiece == null) {
+
+                return NULL_MOVE;
 
-                if (move.getCurrentCoordinate() == currentCoordinate &&
-                        move.getDestinationCoordinate() == destinationCoordinate) {
+            }
+
+            final Player player = movedPiece.getPieceAlliance().isWhite() ? board.whitePlayer() : board.blackPlayer();
+            return player.getMoveIndex().getMove(currentCoordinate, destinationCoordinate);
+
+        }
+
+        /**
+         * A method to create the move object for a packed move of the board's current player, this is the only place
+         * search results are turned back into objects for the GUI and the players
+         */
+        public static Move createMove(final Board board, final int packedMove) {
 
-                    return move;
+            if (packedMove == PackedMove.NO_MOVE) {
 
-                }
+                return NULL_MOVE;
 
             }
 
-            return NULL_MOVE;
+            final int currentCoordinate = PackedMove.getCurrentCoordinate(packedMove);
+            final int destinationCoordinate = PackedMove.getDestinationCoordinate(packedMove);
+            final Piece movedPiece = board.getPiece(currentCoordinate);
+
+            switch (PackedMove.getFlags(packedMove)) {
+                case PackedMove.QUIET:
+                    return movedPiece.getPieceType() == Piece.PieceType.PAWN ?
+                            new pawnMove(board, movedPiece, destinationCoordinate) :
+                            new MajorMove(board, movedPiece, destinationCoordinate);
+                case PackedMove.DOUBLE_PAWN_PUSH:
+                    return new pawnJump(board, movedPiece, destinationCoordinate);
+                case PackedMove.KING_SIDE_CASTLE:
+                    return new kingSideCastleMove(board, movedPiece, destinationCoordinate,
+                            (Rook) board.getPiece(currentCoordinate + 3), currentCoordinate + 3, currentCoordinate + 1);
+                case PackedMove.QUEEN_SIDE_CASTLE:
+                    return new queenSideCastleMove(board, movedPiece, destinationCoordinate,
+                            (Rook) board.getPiece(currentCoordinate - 4), currentCoordinate - 4, currentCoordinate - 1);
+                case PackedMove.CAPTURE:
+                    return movedPiece.getPieceType() == Piece.PieceType.PAWN ?
+                            new pawnAttackMove(board, movedPiece, destinationCoordinate,
+                                    board.getPiece(destinationCoordinate)) :
+                            new AttackMove(board, movedPiece, destinationCoordinate,
+                                    board.getPiece(destinationCoordinate));
+                case PackedMove.EN_PASSANT:
+                    return new pawnEnPassantAttackMove(board, movedPiece, destinationCoordinate,
+                            board.getEnPassantPawn());
+                default:
+                    final Move pawnMove = PackedMove.isAttack(packedMove) ?
+                            new pawnAttackMove(board, movedPiece, destinationCoordinate,
+                                    board.getPiece(destinationCoordinate)) :
+                            new pawnMove(board, movedPiece, destinationCoordinate);
+                    return new pawnPromotion(pawnMove, Pawn.createPromotionPiece(movedPiece.getPieceAlliance(),
+                            destinationCoordinate, Piece.PieceType.values()[PackedMove.getPromotionType(packedMove)]));
+            }
 
         }
 
@@ -0,0 +1,589 @@
+package com.chess.engine.board;
+
+import com.chess.engine.Alliance;
+import com.chess.engine.pieces.Piece.PieceType;
+
+/**
+ * Move generation for the search board. Moves are written as packed ints straight into a MoveList, so generating the
+ * moves of a position creates no objects. generateMoves gives pseudo-legal moves, which follow every rule except that a
+ * move may still leave the mover's own king in check; generateLegalMoves gives only the moves that can really be played
+ */
+public class MoveGenerator {
+
+    private static final int WHITE = Alliance.WHITE.ordinal();
+
+    private static final int PAWN = PieceType.PAWN.ordinal();
+    private static final int KNIGHT = PieceType.KNIGHT.ordinal();
+    private static final int BISHOP = PieceType.BISHOP.ordinal();
+    private static final int ROOK = PieceType.ROOK.ordinal();
+    private static final int QUEEN = PieceType.QUEEN.ordinal();
+    private static final int KING = PieceType.KING.ordinal();
+
+    //Rows as bitboards, row 0 is the Black alliance's back row and row 7 the White alliance's back row
+    private static final long ROW_0 = 0xFFL;
+    private static final long ROW_2 = 0xFFL << 16;
+    private static final long ROW_5 = 0xFFL << 40;
+    private static final long ROW_7 = 0xFFL << 56;
+    private static final long ALL_TILES = ~0L;
+
+    //Which moves a generation call adds: every move, only captures and promotions, or only the remaining quiet moves
+    private static final int ALL_MOVES = 0;
+    private static final int CAPTURES = 1;
+    private static final int QUIETS = 2;
+
+    //MoveGenerator constructor with a runtimeException to prevent a user from instantiating this class
+    private MoveGenerator() {
+        throw new RuntimeException("You cannot instantiate me!");
+    }
+
+    /**
+     * A method to add every pseudo-legal move of the side to move to the move list
+     */
+    public static void generateMoves(final SearchBoard board, final MoveList moves) {
+
+        final int us = board.getSideToMove();
+        final long king = board.getPieceBitBoard(us * BitBoards.NUM_PIECE_TYPES + KING);
+
+        //With no pinned pieces the king tile is never looked at
+        generatePieceMoves(board, moves, ALL_TILES, ALL_MOVES, BitBoards.EMPTY, 0, false);
+
+        if (king != 0) {
+            final int from = BitBoards.firstSquare(king);
+            addMoves(moves, from, BitBoards.kingAttacks(from) & ~board.getOccupancy(us), board.getOccupancy(us ^ 1));
+            generateCastleMoves(board, moves, us, board.getOccupancy());
+        }
+
+    }
+
+    /**
+     * A method to add only the strictly legal moves of the side to move to the move list. The pieces pinned to the king
+     * and the pieces giving check are worked out first, so no move has to be tried on the board to see whether it
+     * leaves the king attacked
+     */
+    public static void generateLegalMoves(final SearchBoard board, final MoveList moves) {
+
+        generateLegalMoves(board, moves, ALL_MOVES);
+
+    }
+
+    /**
+     * A method to add only the strictly legal captures and promotions of the side to move, en passant captures and
+     * promotions without a capture included. Together with generateLegalQuiets this gives the same moves as
+     * generateLegalMoves, so a search can try the captures before it pays for generating the quiet moves
+     */
+    public static void generateLegalCaptures(final SearchBoard board, final MoveList moves) {
+
+        generateLegalMoves(board, moves, CAPTURES);
+
+    }
+
+    /**
+     * A method to add only the strictly legal moves of the side to move that neither capture nor promote, castling
+     * included
+     */
+    public static void generateLegalQuiets(final SearchBoard board, final MoveList moves) {
+
+        generateLegalMoves(board, moves, QUIETS);
+
+    }
+
+    private static void generateLegalMoves(final SearchBoard board, final MoveList moves, final int kind) {
+
+        final int us = board.getSideToMove();
+        final int kingTile = BitBoards.firstSquare(board.getPieceBitBoard(us * BitBoards.NUM_PIECE_TYPES + KING));
+        final long checkers = attackersTo(board, kingTile, us ^ 1);
+
+        if (checkers != 0) {
+            generateEvasions(board, moves, kingTile, checkers, kind);
+            return;
+        }
+
+        generatePieceMoves(board, moves, ALL_TILES, kind, calculatePinnedPieces(board, kingTile, us), kingTile, true);
+        generateLegalKingMoves(board, moves, kingTile, kind);
+
+        if (kind != CAPTURES) {
+            generateCastleMoves(board, moves, us, board.getOccupancy());
+        }
+
+    }
+
+    /**
+     * A method to add the legal moves of a side in check. The king may always step out of check; when only one piece
+     * gives check the other pieces may also capture the checker or block a sliding check
+     */
+    public static void generateEvasions(final SearchBoard board, final MoveList moves, final int kingTile,
+                                        final long checkers) {
+
+        generateEvasions(board, moves, kingTile, checkers, ALL_MOVES);
+
+    }
+
+    private static void generateEvasions(final SearchBoard board, final MoveList moves, final int kingTile,
+                                         final long checkers, final int kind) {
+
+        generateLegalKingMoves(board, moves, kingTile, kind);
+
+        //In double check only a king move can help
+        if (BitBoards.popFirstSquare(checkers) != 0) {
+            return;
+        }
+
+        final long targets = checkers | BitBoards.between(kingTile, BitBoards.firstSquare(checkers));
+        generatePieceMoves(board, moves, targets, kind,
+                calculatePinnedPieces(board, kingTile, board.getSideToMove()), kingTile, true);
+
+    }
+
+    /**
+     * A method to check whether the side to move has at least one legal move, used to tell checkmate and stalemate
+     * apart from positions where the game goes on
+     */
+    public static boolean hasLegalMoves(final SearchBoard board) {
+
+        final MoveList moves = new MoveList();
+        generateLegalMoves(board, moves);
+        return !moves.isEmpty();
+
+    }
+
+    /**
+     * A method to check whether a packed move that was not generated for this position, such as a move taken from the
+     * transposition table or a killer move from another position, can be played here. The move has to be exactly the
+     * move the generator would give, flags included. It is checked against the rules of the piece on its current tile
+     * and then made and unmade once to see whether it leaves the king attacked, so no moves are generated
+     */
+    public static boolean isLegal(final SearchBoard board, final int move) {
+
+        if (move == PackedMove.NO_MOVE) {
+            return false;
+        }
+
+        final int us = board.getSideToMove();
+        final int from = PackedMove.getCurrentCoordinate(move);
+        final int to = PackedMove.getDestinationCoordinate(move);
+        final int piece = board.getPieceOnTile(from);
+
+        if (piece == SearchBoard.EMPTY_TILE || piece / BitBoards.NUM_PIECE_TYPES != us ||
+                BitBoards.isSet(board.getOccupancy(us), to)) {
+            return false;
+        }
+
+        final int pieceType = piece % BitBoards.NUM_PIECE_TYPES;
+        final boolean isCapture = BitBoards.isSet(board.getOccupancy(us ^ 1), to);
+
+        if (PackedMove.isCastlingMove(move)) {
+
+            final boolean kingSide = PackedMove.getFlags(move) == PackedMove.KING_SIDE_CASTLE;
+            final int kingTile = us == WHITE ? 60 : 4;
+
+            //Castling is checked in full by the same test the castling generator uses, king safety included
+            return pieceType == KING && from == kingTile && to == kingTile + (kingSide ? 2 : -2) &&
+                    canCastle(board, us, kingSide, board.getOccupancy());
+
+        }
+
+        if (pieceType == PAWN) {
+
+            if (!isPawnMove(board, move, us, isCapture)) {
+                return false;
+            }
+
+        } else if (PackedMove.getFlags(move) != (isCapture ? PackedMove.CAPTURE : PackedMove.QUIET) ||
+                !BitBoards.isSet(pieceAttacks(pieceType, from, board.getOccupancy()), to)) {
+
+            return false;
+
+        }
+
+        board.makeMove(move);
+        final boolean isLegal = !isSquareAttacked(board,
+                BitBoards.firstSquare(board.getPieceBitBoard(us * BitBoards.NUM_PIECE_TYPES + KING)), us ^ 1);
+        board.unmakeMove();
+        return isLegal;
+
+    }
+
+    /**
+     * A method to check whether the king of the side to move is attacked
+     */
+    public static boolean isInCheck(final SearchBoard board) {
+
+        final int us = board.getSideToMove();
+        return isSquareAttacked(board,
+                BitBoards.firstSquare(board.getPieceBitBoard(us * BitBoards.NUM_PIECE_TYPES + KING)), us ^ 1);
+
+    }
+
+    /**
+     * A method to add the pawn, knight, bishop, rook and queen moves of the side to move that land on one of the
+     * target tiles and are of the given kind. A pinned piece may only move along the line through its king and itself,
+     * and in strict mode an en passant capture is only added when it does not uncover an attack on the king
+     */
+    private static void generatePieceMoves(final SearchBoard board, final MoveList moves, final long targets,
+                                           final int kind, final long pinned, final int kingTile,
+                                           final boolean strict) {
+
+        final int us = board.getSideToMove();
+        final int them = us ^ 1;
+        final long ownPieces = board.getOccupancy(us);
+        final long opponentPieces = board.getOccupancy(them);
+        final long allPieces = ownPieces | opponentPieces;
+        final int pieceOffset = us * BitBoards.NUM_PIECE_TYPES;
+        //Pawns promote on empty tiles too, so only the other pieces can have their targets narrowed to one kind here
+        final long pieceTargets = targets & kindTargets(kind, opponentPieces);
+
+        generatePawnMoves(board, moves, us, allPieces, opponentPieces, targets, kind, pinned, kingTile, strict);
+
+        //A pinned knight can never move without leaving its line, so pinned knights are skipped altogether
+        for (long knights = board.getPieceBitBoard(pieceOffset + KNIGHT) & ~pinned; knights != 0;
+             knights = BitBoards.popFirstSquare(knights)) {
+            final int from = BitBoards.firstSquare(knights);
+            addMoves(moves, from, BitBoards.knightAttacks(from) & ~ownPieces & pieceTargets, opponentPieces);
+        }
+
+        for (long bishops = board.getPieceBitBoard(pieceOffset + BISHOP); bishops != 0;
+             bishops = BitBoards.popFirstSquare(bishops)) {
+            final int from = BitBoards.firstSquare(bishops);
+            addMoves(moves, from, MagicBitBoards.bishopAttacks(from, allPieces) & ~ownPieces & pieceTargets &
+                    pinRay(pinned, kingTile, from), opponentPieces);
+        }
+
+        for (long rooks = board.getPieceBitBoard(pieceOffset + ROOK); rooks != 0;
+             rooks = BitBoards.popFirstSquare(rooks)) {
+            final int from = BitBoards.firstSquare(rooks);
+            addMoves(moves, from, MagicBitBoards.rookAttacks(from, allPieces) & ~ownPieces & pieceTargets &
+                    pinRay(pinned, kingTile, from), opponentPieces);
+        }
+
+        for (long queens = board.getPieceBitBoard(pieceOffset + QUEEN); queens != 0;
+             queens = BitBoards.popFirstSquare(queens)) {
+            final int from = BitBoards.firstSquare(queens);
+            addMoves(moves, from, MagicBitBoards.queenAttacks(from, allPieces) & ~ownPieces & pieceTargets &
+                    pinRay(pinned, kingTile, from), opponentPieces);
+        }
+
+    }
+
+    /**
+     * A method to add the pawn pushes, pawn jumps, captures, en passant captures and promotions of the side to move.
+     * Captures and promotions are of the CAPTURES kind, the other pushes and the jumps of the QUIETS kind
+     */
+    private static void generatePawnMoves(final SearchBoard board, final MoveList moves, final int us,
+                                          final long allPieces, final long opponentPieces, final long targets,
+                                          final int kind, final long pinned, final int kingTile,
+                                          final boolean strict) {
+
+        final long pawns = board.getPieceBitBoard(us * BitBoards.NUM_PIECE_TYPES + PAWN);
+        final long emptyTiles = ~allPieces;
+        //White pawns move towards tile 0 and Black pawns towards tile 63
+        final int forward = us == WHITE ? -8 : 8;
+        final long promotionRow = us == WHITE ? ROW_0 : ROW_7;
+        final long pushTargets = targets & (kind == CAPTURES ? promotionRow : kind == QUIETS ? ~promotionRow :
+                ALL_TILES);
+        final long singlePushes = (us == WHITE ? pawns >>> 8 : pawns << 8) & emptyTiles;
+        final long doublePushes = (us == WHITE ? (singlePushes & ROW_5) >>> 8 : (singlePushes & ROW_2) << 8) &
+                emptyTiles & (kind == CAPTURES ? BitBoards.EMPTY : ALL_TILES);
+
+        for (long destinations = singlePushes & pushTargets; destinations != 0;
+             destinations = BitBoards.popFirstSquare(destinations)) {
+            final int to = BitBoards.firstSquare(destinations);
+            final int from = to - forward;
+            if (!BitBoards.isSet(pinRay(pinned, kingTile, from), to)) {
+                continue;
+            }
+            if (BitBoards.isSet(promotionRow, to)) {
+                addPromotions(moves, from, to, false);
+            } else {
+                moves.add(PackedMove.encode(from, to, PackedMove.QUIET));
+            }
+        }
+
+        for (long destinations = doublePushes & pushTargets; destinations != 0;
+             destinations = BitBoards.popFirstSquare(destinations)) {
+            final int to = BitBoards.firstSquare(destinations);
+            final int from = to - 2 * forward;
+            if (BitBoards.isSet(pinRay(pinned, kingTile, from), to)) {
+                moves.add(PackedMove.encode(from, to, PackedMove.DOUBLE_PAWN_PUSH));
+            }
+        }
+
+        if (kind == QUIETS) {
+            return;
+        }
+
+        for (long attackers = pawns; attackers != 0; attackers = BitBoards.popFirstSquare(attackers)) {
+            final int from = BitBoards.firstSquare(attackers);
+            for (long destinations = BitBoards.pawnAttacks(us, from) & opponentPieces & targets &
+                    pinRay(pinned, kingTile, from); destinations != 0;
+                 destinations = BitBoards.popFirstSquare(destinations)) {
+                final int to = BitBoards.firstSquare(destinations);
+                if (BitBoards.isSet(promotionRow, to)) {
+                    addPromotions(moves, from, to, true);
+                } else {
+                    moves.add(PackedMove.encode(from, to, PackedMove.CAPTURE));
+                }
+            }
+        }
+
+        final int enPassantTile = board.getEnPassantTile();
+
+        if (enPassantTile != SearchBoard.NO_EN_PASSANT) {
+            //The pawns that can capture en passant are the ones an opponent pawn on the en passant tile would attack
+            for (long attackers = BitBoards.pawnAttacks(us ^ 1, enPassantTile) & pawns; attackers != 0;
+                 attackers = BitBoards.popFirstSquare(attackers)) {
+                final int from = BitBoards.firstSquare(attackers);
+                if (!strict || isLegalEnPassant(board, from, enPassantTile, kingTile)) {
+                    moves.add(PackedMove.encode(from, enPassantTile, PackedMove.EN_PASSANT));
+                }
+            }
+        }
+
+    }
+
+    /**
+     * A method to add the king steps to tiles the opponent does not attack. The king is taken off the board while
+     * checking, otherwise a slider checking along a line would not be seen attacking the tile behind the king
+     */
+    private static void generateLegalKingMoves(final SearchBoard board, final MoveList moves, final int kingTile,
+                                               final int kind) {
+
+        final int us = board.getSideToMove();
+        final long opponentPieces = board.getOccupancy(us ^ 1);
+        final long occupancyWithoutKing = board.getOccupancy() & ~BitBoards.squareMask(kingTile);
+
+        for (long destinations = BitBoards.kingAttacks(kingTile) & ~board.getOccupancy(us) &
+                kindTargets(kind, opponentPieces); destinations != 0;
+             destinations = BitBoards.popFirstSquare(destinations)) {
+            final int to = BitBoards.firstSquare(destinations);
+            if (attackersTo(board, to, us ^ 1, occupancyWithoutKing) == 0) {
+                moves.add(PackedMove.encode(kingTile, to, BitBoards.isSet(opponentPieces, to) ?
+                        PackedMove.CAPTURE : PackedMove.QUIET));
+            }
+        }
+
+    }
+
+    /**
+     * A method to find the pieces of the given alliance that are the only piece between their king and an opponent
+     * slider, and so may not leave that line
+     */
+    private static long calculatePinnedPieces(final SearchBoard board, final int kingTile, final int us) {
+
+        final int pieceOffset = (us ^ 1) * BitBoards.NUM_PIECE_TYPES;
+        final long queens = board.getPieceBitBoard(pieceOffset + QUEEN);
+        final long allPieces = board.getOccupancy();
+        //Opponent sliders that would attack the king on an empty board
+        final long snipers = (MagicBitBoards.rookAttacks(kingTile, BitBoards.EMPTY) &
+                (board.getPieceBitBoard(pieceOffset + ROOK) | queens)) |
+                (MagicBitBoards.bishopAttacks(kingTile, BitBoards.EMPTY) &
+                        (board.getPieceBitBoard(pieceOffset + BISHOP) | queens));
+        long pinned = BitBoards.EMPTY;
+
+        for (long remaining = snipers; remaining != 0; remaining = BitBoards.popFirstSquare(remaining)) {
+            final long blockers = BitBoards.between(kingTile, BitBoards.firstSquare(remaining)) & allPieces;
+            if (blockers != 0 && BitBoards.popFirstSquare(blockers) == 0) {
+                pinned |= blockers & board.getOccupancy(us);
+            }
+        }
+
+        return pinned;
+
+    }
+
+    /**
+     * A method to get the tiles a piece may move to without breaking a pin, every tile when the piece is not pinned
+     */
+    private static long pinRay(final long pinned, final int kingTile, final int from) {
+
+        return BitBoards.isSet(pinned, from) ? BitBoards.line(kingTile, from) : ALL_TILES;
+
+    }
+
+    /**
+     * A method to check an en passant capture by looking at the board as it will be after the capture. Two pawns leave
+     * the capturing pawn's row at once, which can uncover a rook along that row that no pin check would catch
+     */
+    private static boolean isLegalEnPassant(final SearchBoard board, final int from, final int enPassantTile,
+                                            final int kingTile) {
+
+        final int us = board.getSideToMove();
+        final long capturedPawn = BitBoards.squareMask(enPassantTile + (us == WHITE ? 8 : -8));
+        final long occupancyAfter = (board.getOccupancy() & ~BitBoards.squareMask(from) & ~capturedPawn) |
+                BitBoards.squareMask(enPassantTile);
+
+        return (attackersTo(board, kingTile, us ^ 1, occupancyAfter) & ~capturedPawn) == 0;
+
+    }
+
+    /**
+     * A method to add the castling moves of the side to move. The king may not castle out of, through or into check
+     */
+    private static void generateCastleMoves(final SearchBoard board, final MoveList moves, final int us,
+                                            final long allPieces) {
+
+        final int kingTile = us == WHITE ? 60 : 4;
+
+        if (canCastle(board, us, true, allPieces)) {
+            moves.add(PackedMove.encode(kingTile, kingTile + 2, PackedMove.KING_SIDE_CASTLE));
+        }
+        if (canCastle(board, us, false, allPieces)) {
+            moves.add(PackedMove.encode(kingTile, kingTile - 2, PackedMove.QUEEN_SIDE_CASTLE));
+        }
+
+    }
+
+    /**
+     * A method to check whether the side to move may castle to one side: it still has the right, the tiles between king
+     * and rook are empty and neither the king tile nor the two tiles the king moves over and onto are attacked
+     */
+    private static boolean canCastle(final SearchBoard board, final int us, final boolean kingSide,
+                                     final long allPieces) {
+
+        final int kingTile = us == WHITE ? 60 : 4;
+        final int castlingRight = us == WHITE ?
+                (kingSide ? BoardUtils.WHITE_KING_SIDE_CASTLE : BoardUtils.WHITE_QUEEN_SIDE_CASTLE) :
+                (kingSide ? BoardUtils.BLACK_KING_SIDE_CASTLE : BoardUtils.BLACK_QUEEN_SIDE_CASTLE);
+        //The Black alliance's tiles between king and rook, shifted onto the White alliance's back row for White
+        final long emptyTiles = (kingSide ? 0x60L : 0x0EL) << (kingTile - 4);
+        final int direction = kingSide ? 1 : -1;
+        final int them = us ^ 1;
+
+        return (board.getCastlingRights() & castlingRight) != 0 && (allPieces & emptyTiles) == 0 &&
+                !isSquareAttacked(board, kingTile, them) && !isSquareAttacked(board, kingTile + direction, them) &&
+                !isSquareAttacked(board, kingTile + 2 * direction, them);
+
+    }
+
+    /**
+     * A method to check whether any piece of the given alliance attacks a tile, by looking outwards from the tile
+     */
+    public static boolean isSquareAttacked(final SearchBoard board, final int tileCoordinate, final int byAlliance) {
+
+        final int pieceOffset = byAlliance * BitBoards.NUM_PIECE_TYPES;
+        final long allPieces = board.getOccupancy();
+        final long queens = board.getPieceBitBoard(pieceOffset + QUEEN);
+
+        return (BitBoards.pawnAttacks(byAlliance ^ 1, tileCoordinate) &
+                board.getPieceBitBoard(pieceOffset + PAWN)) != 0 ||
+                (BitBoards.knightAttacks(tileCoordinate) & board.getPieceBitBoard(pieceOffset + KNIGHT)) != 0 ||
+                (BitBoards.kingAttacks(tileCoordinate) & board.getPieceBitBoard(pieceOffset + KING)) != 0 ||
+                (MagicBitBoards.bishopAttacks(tileCoordinate, allPieces) &
+                        (board.getPieceBitBoard(pieceOffset + BISHOP) | queens)) != 0 ||
+                (MagicBitBoards.rookAttacks(tileCoordinate, allPieces) &
+                        (board.getPieceBitBoard(pieceOffset + ROOK) | queens)) != 0;
+
+    }
+
+    /**
+     * A method to get a bitboard of every piece of the given alliance that attacks a tile
+     */
+    public static long attackersTo(final SearchBoard board, final int tileCoordinate, final int byAlliance) {
+
+        return attackersTo(board, tileCoordinate, byAlliance, board.getOccupancy());
+
+    }
+
+    /**
+     * A method to get a bitboard of every piece of the given alliance that attacks a tile when the sliders are blocked
+     * by the given occupancy instead of the board's own
+     */
+    public static long attackersTo(final SearchBoard board, final int tileCoordinate, final int byAlliance,
+                                   final long occupancy) {
+
+        final int pieceOffset = byAlliance * BitBoards.NUM_PIECE_TYPES;
+        final long queens = board.getPieceBitBoard(pieceOffset + QUEEN);
+
+        return (BitBoards.pawnAttacks(byAlliance ^ 1, tileCoordinate) & board.getPieceBitBoard(pieceOffset + PAWN)) |
+                (BitBoards.knightAttacks(tileCoordinate) & board.getPieceBitBoard(pieceOffset + KNIGHT)) |
+                (BitBoards.kingAttacks(tileCoordinate) & board.getPieceBitBoard(pieceOffset + KING)) |
+                (MagicBitBoards.bishopAttacks(tileCoordinate, occupancy) &
+                        (board.getPieceBitBoard(pieceOffset + BISHOP) | queens)) |
+                (MagicBitBoards.rookAttacks(tileCoordinate, occupancy) &
+                        (board.getPieceBitBoard(pieceOffset + ROOK) | queens));
+
+    }
+
+    /**
+     * A method to check a packed pawn move against the pawn rules, flags included, without looking at king safety
+     */
+    private static boolean isPawnMove(final SearchBoard board, final int move, final int us, final boolean isCapture) {
+
+        final int from = PackedMove.getCurrentCoordinate(move);
+        final int to = PackedMove.getDestinationCoordinate(move);
+        final int flags = PackedMove.getFlags(move);
+        final int forward = us == WHITE ? -8 : 8;
+        final long promotionRow = us == WHITE ? ROW_0 : ROW_7;
+
+        if (flags == PackedMove.EN_PASSANT) {
+            return to == board.getEnPassantTile() && BitBoards.isSet(BitBoards.pawnAttacks(us, from), to);
+        }
+
+        final boolean isPromotion = PackedMove.isPromotion(move);
+
+        if (isPromotion != BitBoards.isSet(promotionRow, to) || PackedMove.isAttack(move) != isCapture) {
+            return false;
+        }
+
+        if (isCapture) {
+            return (isPromotion || flags == PackedMove.CAPTURE) &&
+                    BitBoards.isSet(BitBoards.pawnAttacks(us, from), to);
+        }
+
+        //A jump needs the tile it passes over to be empty as well, the destination is empty since it is no capture
+        if (flags == PackedMove.DOUBLE_PAWN_PUSH) {
+            return to == from + 2 * forward && BitBoards.isSet(us == WHITE ? ROW_5 : ROW_2, from + forward) &&
+                    !BitBoards.isSet(board.getOccupancy(), from + forward);
+        }
+
+        return (isPromotion || flags == PackedMove.QUIET) && to == from + forward;
+
+    }
+
+    /**
+     * A method to get the tiles a knight, bishop, rook, queen or king attacks from a tile
+     */
+    private static long pieceAttacks(final int pieceType, final int tileCoordinate, final long occupancy) {
+
+        if (pieceType == KNIGHT) {
+            return BitBoards.knightAttacks(tileCoordinate);
+        } else if (pieceType == BISHOP) {
+            return MagicBitBoards.bishopAttacks(tileCoordinate, occupancy);
+        } else if (pieceType == ROOK) {
+            return MagicBitBoards.rookAttacks(tileCoordinate, occupancy);
+        } else if (pieceType == QUEEN) {
+            return MagicBitBoards.queenAttacks(tileCoordinate, occupancy);
+        }
+
+        return BitBoards.kingAttacks(tileCoordinate);
+
+    }
+
+    /**
+     * A method to get the tiles a piece other than a pawn may move to for a kind of move
+     */
+    private static long kindTargets(final int kind, final long opponentPieces) {
+
+        return kind == CAPTURES ? opponentPieces : kind == QUIETS ? ~opponentPieces : ALL_TILES;
+
+    }
+
+    private static void addMoves(final MoveList moves, final int from, final long targets, final long opponentPieces) {
+
+        for (long remaining = targets; remaining != 0; remaining = BitBoards.popFirstSquare(remaining)) {
+            final int to = BitBoards.firstSquare(remaining);
+            moves.add(PackedMove.encode(from, to, BitBoards.isSet(opponentPieces, to) ?
+                    PackedMove.CAPTURE : PackedMove.QUIET));
+        }
+
+    }
+
+    private static void addPromotions(final MoveList moves, final int from, final int to, final boolean isAttack) {
+
+        moves.add(PackedMove.encode(from, to, PackedMove.promotionFlags(PieceType.QUEEN, isAttack)));
+        moves.add(PackedMove.encode(from, to, PackedMove.promotionFlags(PieceType.ROOK, isAttack)));
+        moves.add(PackedMove.encode(from, to, PackedMove.promotionFlags(PieceType.BISHOP, isAttack)));
+        moves.add(PackedMove.encode(from, to, PackedMove.promotionFlags(PieceType.KNIGHT, isAttack)));
+
+    }
+
+}
@@ -0,0 +1,205 @@
+package com.chess.engine.board;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * An index over a player's legal moves, so a move can be found by its tiles without going through the whole list. The
+ * moves are grouped by the tile they start on and sorted by destination, every starting tile has a bitmask of the
+ * tiles its moves go to, and a small open addressing table keyed by the current and destination tile points at the
+ * first move between the two tiles. The four promotions of one pawn to one tile follow each other in the moves array
+ */
+public final class MoveIndex {
+
+    private static final int NO_ENTRY = 0;
+
+    private final Move[] moves;
+    private final int[] offsets;
+    private final long[] destinations;
+    //Positions in the moves array plus one, so an empty slot is 0
+    private final int[] table;
+    private final int tableShift;
+
+    public MoveIndex(final Collection<Move> legalMoves) {
+
+        this.offsets = new int[BoardUtils.NUM_TILES + 1];
+        this.destinations = new long[BoardUtils.NUM_TILES];
+        this.moves = groupByCurrentCoordinate(legalMoves);
+
+        final int tableBits = Math.max(2, 33 - Integer.numberOfLeadingZeros(this.moves.length));
+        this.table = new int[1 << tableBits];
+        this.tableShift = Integer.SIZE - tableBits;
+
+        for (int position = 0; position < this.moves.length; position++) {
+
+            final Move move = this.moves[position];
+            final int currentCoordinate = move.getCurrentCoordinate();
+            final int destinationCoordinate = move.getDestinationCoordinate();
+            this.destinations[currentCoordinate] |= BitBoards.squareMask(destinationCoordinate);
+
+            //Only the first of several moves between the same tiles goes into the table
+            if (position == this.offsets[currentCoordinate] ||
+                    this.moves[position - 1].getDestinationCoordinate() != destinationCoordinate) {
+
+                int slot = slot(currentCoordinate, destinationCoordinate);
+
+                while (this.table[slot] != NO_ENTRY) {
+                    slot = (slot + 1) & (this.table.length - 1);
+                }
+
+                this.table[slot] = position + 1;
+
+            }
+
+        }
+
+    }
+
+    /**
+     * A method to get the first move from one tile to another, or the null move when there is none. For a promotion
+     * this is the promotion to a queen
+     */
+    public Move getMove(final int currentCoordinate, final int destinationCoordinate) {
+
+        final int position = find(currentCoordinate, destinationCoordinate);
+        return position < 0 ? Move.NULL_MOVE : this.moves[position];
+
+    }
+
+    /**
+     * A method to check whether a move is one of the indexed moves, only the moves between the same two tiles are
+     * compared with it
+     */
+    public boolean contains(final Move move) {
+
+        if (move == null || move.getMovedPiece() == null) {
+            return false;
+        }
+
+        final int currentCoordinate = move.getCurrentCoordinate();
+        final int destinationCoordinate = move.getDestinationCoordinate();
+        final int position = find(currentCoordinate, destinationCoordinate);
+
+        if (position < 0) {
+            return false;
+        }
+
+        for (int i = position; i < this.offsets[currentCoordinate + 1] &&
+                this.moves[i].getDestinationCoordinate() == destinationCoordinate; i++) {
+
+            //Compared with the equals of the move looked for, the same way a list compares it
+            if (move.equals(this.moves[i])) {
+                return true;
+            }
+
+        }
+
+        return false;
+
+    }
+
+    /**
+     * A method to get the bitboard of the tiles the moves starting on a tile go to
+     */
+    public long getDestinations(final int currentCoordinate) {
+
+        return this.destinations[currentCoordinate];
+
+    }
+
+    /**
+     * A method to get the moves starting on a tile, sorted by destination
+     */
+    public List<Move> getMoves(final int currentCoordinate) {
+
+        return Collections.unmodifiableList(Arrays.asList(this.moves)
+                .subList(this.offsets[currentCoordinate], this.offsets[currentCoordinate + 1]));
+
+    }
+
+    public int size() {
+
+        return this.moves.length;
+
+    }
+
+    private int find(final int currentCoordinate, final int destinationCoordinate) {
+
+        if ((this.destinations[currentCoordinate] & BitBoards.squareMask(destinationCoordinate)) == 0) {
+            return -1;
+        }
+
+        int slot = slot(currentCoordinate, destinationCoordinate);
+
+        while (this.table[slot] != NO_ENTRY) {
+
+            final Move move = this.moves[this.table[slot] - 1];
+
+            if (move.getCurrentCoordinate() == currentCoordinate &&
+                    move.getDestinationCoordinate() == destinationCoordinate) {
+                return this.table[slot] - 1;
+            }
+
+            slot = (slot + 1) & (this.table.length - 1);
+
+        }
+
+        return -1;
+
+    }
+
+    //Fibonacci hashing of the 12 bit key made of both tiles
+    private int slot(final int currentCoordinate, final int destinationCoordinate) {
+
+        return ((currentCoordinate << 6 | destinationCoordinate) * 0x9E3779B9) >>> this.tableShift;
+
+    }
+
+    /**
+     * A method to sort the moves by current tile with a counting sort, and by destination within a tile with an
+     * insertion sort that keeps the order of moves between the same tiles
+     */
+    private Move[] groupByCurrentCoordinate(final Collection<Move> legalMoves) {
+
+        final Move[] grouped = new Move[legalMoves.size()];
+
+        for (final Move move : legalMoves) {
+            this.offsets[move.getCurrentCoordinate() + 1]++;
+        }
+
+        for (int tile = 0; tile < BoardUtils.NUM_TILES; tile++) {
+            this.offsets[tile + 1] += this.offsets[tile];
+        }
+
+        final int[] next = Arrays.copyOf(this.offsets, BoardUtils.NUM_TILES);
+
+        for (final Move move : legalMoves) {
+            grouped[next[move.getCurrentCoordinate()]++] = move;
+        }
+
+        for (int tile = 0; tile < BoardUtils.NUM_TILES; tile++) {
+
+            for (int i = this.offsets[tile] + 1; i < this.offsets[tile + 1]; i++) {
+
+                final Move move = grouped[i];
+                int j = i - 1;
+
+                while (j >= this.offsets[tile] &&
+                        grouped[j].getDestinationCoordinate() > move.getDestinationCoordinate()) {
+                    grouped[j + 1] = grouped[j];
+                    j--;
+                }
+
+                grouped[j + 1] = move;
+
+            }
+
+        }
+
+        return grouped;
+
+    }
+
+}
@@ -0,0 +1,82 @@
+package com.chess.engine.board;
+
+/**
+ * A reusable list of packed moves backed by an int array. Search code keeps one list per ply and clears it instead of
+ * allocating a new collection for every position
+ */
+public class MoveList {
+
+    //No legal chess position has more than 218 moves
+    public static final int MAX_MOVES = 256;
+
+    private final int[] moves = new int[MAX_MOVES];
+    private int size;
+
+    public void add(final int move) {
+
+        this.moves[this.size++] = move;
+
+    }
+
+    public int get(final int index) {
+
+        return this.moves[index];
+
+    }
+
+    public void set(final int index, final int move) {
+
+        this.moves[index] = move;
+
+    }
+
+    public int size() {
+
+        return this.size;
+
+    }
+
+    public boolean isEmpty() {
+
+        return this.size == 0;
+
+    }
+
+    public void clear() {
+
+        this.size = 0;
+
+    }
+
+    public boolean contains(final int move) {
+
+        for (int i = 0; i < this.size; i++) {
+
+            if (this.moves[i] == move) {
+
+                return true;
+
+            }
+
+        }
+
+        return false;
+
+    }
+
+    @Override
+    public String toString() {
+
+        final StringBuilder builder = new StringBuilder("[");
+
+        for (int i = 0; i < this.size; i++) {
+
+            builder.append(i == 0 ? "" : ", ").append(PackedMove.toString(this.moves[i]));
+
+        }
+
+        return builder.append("]").toString();
+
+    }
+
+}
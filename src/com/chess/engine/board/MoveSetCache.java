@@ -0,0 +1,145 @@
+package com.chess.engine.board;
+
+import com.chess.engine.pieces.Piece;
+
+import java.util.Arrays;
+
+/**
+ * A bounded cache of the moves of knights, bishops, rooks, queens and kings, packed as ints. The moves of such a piece
+ * only depend on its kind, its tile and which tiles within its reach are held by its own or the opponent's pieces, so
+ * positions that differ anywhere else on the board share one entry. The reach of a knight or king is the tiles it
+ * attacks, the reach of a slider its whole rays on an empty board. Pawns are not cached, their en passant captures
+ * depend on the previous move and not just on the tiles around them.
+ *
+ * The cache is a fixed array of immutable entries indexed by a hash of the key, a new entry evicts whatever was stored
+ * at its index. Like the transposition table it is shared by threads without locking: writing an entry reference is
+ * atomic and an entry only has final fields, so a reader sees either a whole old entry or a whole new one
+ */
+public final class MoveSetCache {
+
+    private final Entry[] entries;
+    private final int entryMask;
+
+    /**
+     * Create a cache holding at most the given number of move sets, rounded down to a power of two
+     */
+    public MoveSetCache(final int maxEntries) {
+
+        if (maxEntries <= 0) {
+            throw new IllegalArgumentException("Move set cache size must be positive: " + maxEntries);
+        }
+
+        this.entries = new Entry[Integer.highestOneBit(maxEntries)];
+        this.entryMask = this.entries.length - 1;
+
+    }
+
+    /**
+     * A method to get the moves of a piece other than a pawn when the given tiles are held by its own alliance and by
+     * the opponent, in the order of the tiles they go to. The returned array is shared and must not be changed
+     */
+    public int[] getMoves(final Piece piece, final long ownPieces, final long opponentPieces) {
+
+        if (piece.getPieceType() == Piece.PieceType.PAWN) {
+            throw new IllegalArgumentException("Pawn moves are not cached: " + piece);
+        }
+
+        final long reach = calculateReach(piece);
+        final int pieceKey = BitBoards.pieceIndex(piece.getPieceAlliance(), piece.getPieceType()) *
+                BoardUtils.NUM_TILES + piece.getPiecePosition();
+        final long ownInReach = ownPieces & reach;
+        final long opponentInReach = opponentPieces & reach;
+        final int index = index(pieceKey, ownInReach, opponentInReach);
+        final Entry entry = this.entries[index];
+
+        if (entry != null && entry.pieceKey == pieceKey && entry.ownPieces == ownInReach &&
+                entry.opponentPieces == opponentInReach) {
+            return entry.moves;
+        }
+
+        final int[] moves = calculateMoves(piece, ownInReach, opponentInReach);
+        this.entries[index] = new Entry(pieceKey, ownInReach, opponentInReach, moves);
+        return moves;
+
+    }
+
+    public void clear() {
+
+        Arrays.fill(this.entries, null);
+
+    }
+
+    private int index(final int pieceKey, final long ownPieces, final long opponentPieces) {
+
+        long hash = pieceKey * 0x9E3779B97F4A7C15L ^ ownPieces * 0xC2B2AE3D27D4EB4FL ^ opponentPieces;
+        hash *= 0x165667B19E3779F9L;
+        return (int) (hash >>> 32) & this.entryMask;
+
+    }
+
+    /**
+     * A method to get every tile that can change the moves of a piece: the tiles a knight or king attacks and the
+     * whole rays of a slider on an empty board
+     */
+    private static long calculateReach(final Piece piece) {
+
+        final int tileCoordinate = piece.getPiecePosition();
+
+        switch (piece.getPieceType()) {
+            case KNIGHT:
+                return BitBoards.knightAttacks(tileCoordinate);
+            case BISHOP:
+                return MagicBitBoards.bishopAttacks(tileCoordinate, BitBoards.EMPTY);
+            case ROOK:
+                return MagicBitBoards.rookAttacks(tileCoordinate, BitBoards.EMPTY);
+            case QUEEN:
+                return MagicBitBoards.queenAttacks(tileCoordinate, BitBoards.EMPTY);
+            default:
+                return BitBoards.kingAttacks(tileCoordinate);
+        }
+
+    }
+
+    /**
+     * A method to generate the packed moves of a piece to the tiles it attacks that its own alliance does not hold
+     */
+    private static int[] calculateMoves(final Piece piece, final long ownPieces, final long opponentPieces) {
+
+        final int currentCoordinate = piece.getPiecePosition();
+        long destinations = AttackMap.calculatePieceAttacks(piece, ownPieces | opponentPieces) & ~ownPieces;
+        final int[] moves = new int[BitBoards.count(destinations)];
+
+        for (int i = 0; destinations != 0; i++, destinations = BitBoards.popFirstSquare(destinations)) {
+
+            final int destinationCoordinate = BitBoards.firstSquare(destinations);
+            moves[i] = PackedMove.encode(currentCoordinate, destinationCoordinate,
+                    BitBoards.isSet(opponentPieces, destinationCoordinate) ? PackedMove.CAPTURE : PackedMove.QUIET);
+
+        }
+
+        return moves;
+
+    }
+
+    /**
+     * A cached move set with the key it was generated for
+     */
+    private static final class Entry {
+
+        private final int pieceKey;
+        private final long ownPieces;
+        private final long opponentPieces;
+        private final int[] moves;
+
+        Entry(final int pieceKey, final long ownPieces, final long opponentPieces, final int[] moves) {
+
+            this.pieceKey = pieceKey;
+            this.ownPieces = ownPieces;
+            this.opponentPieces = opponentPieces;
+            this.moves = moves;
+
+        }
+
+    }
+
+}
@@ -0,0 +1,142 @@
+package com.chess.engine.board;
+
+import com.chess.engine.pieces.Piece;
+
+/**
+ * Helper methods for moves packed into the low 16 bits of an int: the current tile in bits 0-5, the destination tile in
+ * bits 6-11 and the kind of move in bits 12-15. Search code passes these ints around instead of Move objects; a Move
+ * object is only created from one with Move.moveFactory when the GUI or a player needs it
+ */
+public class PackedMove {
+
+    //A move from tile 0 to tile 0 can never be made, so 0 doubles as "no move"
+    public static final int NO_MOVE = 0;
+
+    public static final int QUIET = 0;
+    public static final int DOUBLE_PAWN_PUSH = 1;
+    public static final int KING_SIDE_CASTLE = 2;
+    public static final int QUEEN_SIDE_CASTLE = 3;
+    public static final int CAPTURE = 4;
+    public static final int EN_PASSANT = 5;
+    //Promotion flags use bit 3, the low two bits pick the piece and bit 2 marks a capturing promotion
+    public static final int KNIGHT_PROMOTION = 8;
+    public static final int BISHOP_PROMOTION = 9;
+    public static final int ROOK_PROMOTION = 10;
+    public static final int QUEEN_PROMOTION = 11;
+    public static final int KNIGHT_PROMOTION_CAPTURE = 12;
+    public static final int BISHOP_PROMOTION_CAPTURE = 13;
+    public static final int ROOK_PROMOTION_CAPTURE = 14;
+    public static final int QUEEN_PROMOTION_CAPTURE = 15;
+
+    private static final int CAPTURE_BIT = 4;
+    private static final int PROMOTION_BIT = 8;
+
+    //PackedMove constructor with a runtimeException to prevent a user from instantiating this class
+    private PackedMove() {
+        throw new RuntimeException("You cannot instantiate me!");
+    }
+
+    public static int encode(final int currentCoordinate, final int destinationCoordinate, final int flags) {
+
+        return currentCoordinate | (destinationCoordinate << 6) | (flags << 12);
+
+    }
+
+    public static int getCurrentCoordinate(final int move) {
+
+        return move & 0x3F;
+
+    }
+
+    public static int getDestinationCoordinate(final int move) {
+
+        return (move >>> 6) & 0x3F;
+
+    }
+
+    public static int getFlags(final int move) {
+
+        return (move >>> 12) & 0xF;
+
+    }
+
+    /**
+     * A method to check whether a move removes an opponent piece, which includes en passant and capturing promotions
+     */
+    public static boolean isAttack(final int move) {
+
+        return (getFlags(move) & CAPTURE_BIT) != 0;
+
+    }
+
+    public static boolean isPromotion(final int move) {
+
+        return (getFlags(move) & PROMOTION_BIT) != 0;
+
+    }
+
+    public static boolean isCastlingMove(final int move) {
+
+        final int flags = getFlags(move);
+        return flags == KING_SIDE_CASTLE || flags == QUEEN_SIDE_CASTLE;
+
+    }
+
+    /**
+     * A method to get the PieceType ordinal a promotion move promotes to, or SearchBoard.NO_PROMOTION
+     */
+    public static int getPromotionType(final int move) {
+
+        return isPromotion(move) ? Piece.PieceType.KNIGHT.ordinal() + (getFlags(move) & 0x3) : SearchBoard.NO_PROMOTION;
+
+    }
+
+    /**
+     * A method to get the promotion flag for promoting to the given piece type, with or without a capture
+     */
+    public static int promotionFlags(final Piece.PieceType promotionType, final boolean isAttack) {
+
+        return PROMOTION_BIT | (isAttack ? CAPTURE_BIT : 0) |
+                (promotionType.ordinal() - Piece.PieceType.KNIGHT.ordinal());
+
+    }
+
+    /**
+     * A method to pack a move object from the immutable board API
+     */
+    public static int fromMove(final Move move) {
+
+        final int currentCoordinate = move.getCurrentCoordinate();
+        final int destinationCoordinate = move.getDestinationCoordinate();
+        final int flags;
+
+        if (move instanceof Move.pawnPromotion) {
+            flags = promotionFlags(((Move.pawnPromotion) move).getPromotionPiece().getPieceType(), move.isAttack());
+        } else if (move.isCastlingMove()) {
+            flags = destinationCoordinate > currentCoordinate ? KING_SIDE_CASTLE : QUEEN_SIDE_CASTLE;
+        } else if (move instanceof Move.pawnEnPassantAttackMove) {
+            flags = EN_PASSANT;
+        } else if (move instanceof Move.pawnJump) {
+            flags = DOUBLE_PAWN_PUSH;
+        } else {
+            flags = move.isAttack() ? CAPTURE : QUIET;
+        }
+
+        return encode(currentCoordinate, destinationCoordinate, flags);
+
+    }
+
+    /**
+     * A method to write a move in coordinate notation such as e2e4 or e7e8q
+     */
+    public static String toString(final int move) {
+
+        final String notation = BoardUtils.getPositionAtCoordinate(getCurrentCoordinate(move)) +
+                BoardUtils.getPositionAtCoordinate(getDestinationCoordinate(move));
+
+        return isPromotion(move) ?
+                notation + Piece.PieceType.values()[getPromotionType(move)].toString().toLowerCase() : notation;
+
+    }
+
+}
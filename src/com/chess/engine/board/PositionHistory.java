@@ -0,0 +1,92 @@
+package com.chess.engine.board;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The Zobrist keys of the positions that came before a board since the last pawn move or capture, oldest first. Those
+ * are the only positions that can come back, a pawn move or a capture can never be undone.
+ *
+ * A history is immutable, but pushing a key does not copy it: every history derived from the same first key shares one
+ * array and only claims the next free slot of it. When two boards are derived from the same board, as a search does,
+ * the first push claims the slot and the second one copies the keys up to its own size into a new array, so a push is
+ * constant time whichever order the boards are made in
+ */
+public final class PositionHistory {
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    public static final PositionHistory EMPTY = new PositionHistory(new long[0], new AtomicInteger(), 0);
+
+    private final long[] keys;
+    //The number of slots of the shared array handed out to any history so far
+    private final AtomicInteger claimedSize;
+    private final int size;
+
+    private PositionHistory(final long[] keys, final AtomicInteger claimedSize, final int size) {
+
+        this.keys = keys;
+        this.claimedSize = claimedSize;
+        this.size = size;
+
+    }
+
+    /**
+     * A method to get the history followed by one more position
+     */
+    PositionHistory push(final long zobristKey) {
+
+        if (this.size < this.keys.length && this.claimedSize.compareAndSet(this.size, this.size + 1)) {
+
+            this.keys[this.size] = zobristKey;
+            return new PositionHistory(this.keys, this.claimedSize, this.size + 1);
+
+        }
+
+        final long[] grownKeys = Arrays.copyOf(this.keys, Math.max(INITIAL_CAPACITY, this.size * 2));
+        grownKeys[this.size] = zobristKey;
+        return new PositionHistory(grownKeys, new AtomicInteger(this.size + 1), this.size + 1);
+
+    }
+
+    /**
+     * A method to get the key of a position, 0 is the oldest position in the history and size() - 1 the position just
+     * before the board's own position
+     */
+    public long getKey(final int index) {
+
+        if (index < 0 || index >= this.size) {
+            throw new IndexOutOfBoundsException("Position " + index + " of a history of " + this.size);
+        }
+
+        return this.keys[index];
+
+    }
+
+    public int size() {
+
+        return this.size;
+
+    }
+
+    /**
+     * A method to count how often a position with the given key and side to move occurs in the history. Only every
+     * second position has the same side to move as the position after the history
+     */
+    public int countOccurrences(final long zobristKey) {
+
+        int occurrences = 0;
+
+        for (int i = this.size - 2; i >= 0; i -= 2) {
+
+            if (this.keys[i] == zobristKey) {
+                occurrences++;
+            }
+
+        }
+
+        return occurrences;
+
+    }
+
+}
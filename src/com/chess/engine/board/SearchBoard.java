@@ -0,0 +1,517 @@
+package com.chess.engine.board;
+
+import com.chess.engine.Alliance;
+import com.chess.engine.pieces.*;
+
+import java.util.Arrays;
+
+/**
+ * A mutable board for search. Moves are applied and taken back in place with makeMove and unmakeMove, and everything
+ * needed to take a move back is kept on primitive undo stacks, so no objects are created per searched position.
+ * The immutable Board stays the type used by the GUI and the players; a SearchBoard is filled from a Board with
+ * setPosition and turned back into one with toBoard
+ */
+public class SearchBoard {
+
+    public static final int EMPTY_TILE = -1;
+    public static final int NO_EN_PASSANT = -1;
+    public static final int NO_PROMOTION = -1;
+
+    private static final int DEFAULT_STACK_SIZE = 256;
+    //The move stack entry of a null move, no real move packs to a negative number
+    private static final int NULL_MOVE_ENTRY = -1;
+
+    private static final int WHITE = Alliance.WHITE.ordinal();
+    private static final int BLACK = Alliance.BLACK.ordinal();
+    private static final int PAWN = Piece.PieceType.PAWN.ordinal();
+    private static final int ROOK = Piece.PieceType.ROOK.ordinal();
+    private static final int KING = Piece.PieceType.KING.ordinal();
+
+    //Position state, pieces are stored by their BitBoards.pieceIndex
+    private final long[] pieceBitBoards = new long[BitBoards.NUM_PIECE_INDICES];
+    private final long[] allianceOccupancy = new long[2];
+    private final int[] pieceOnTile = new int[BoardUtils.NUM_TILES];
+    private long unmovedPieces;
+    private int sideToMove;
+    private int castlingRights;
+    private int enPassantTile;
+    private long zobristKey;
+    private int halfmoveClock;
+    //The moves made since the last null move, or since the last pawn move or capture when there was none
+    private int pliesSinceNull;
+    //The keys of the positions the board came from before it was set, since its last pawn move or capture
+    private PositionHistory gameHistory;
+
+    //Undo stacks, one entry per move made since the position was set
+    private int[] moveStack = new int[DEFAULT_STACK_SIZE];
+    private int[] capturedStack = new int[DEFAULT_STACK_SIZE];
+    private int[] castlingStack = new int[DEFAULT_STACK_SIZE];
+    private int[] enPassantStack = new int[DEFAULT_STACK_SIZE];
+    private long[] unmovedStack = new long[DEFAULT_STACK_SIZE];
+    private long[] keyStack = new long[DEFAULT_STACK_SIZE];
+    private int[] halfmoveStack = new int[DEFAULT_STACK_SIZE];
+    private int[] pliesSinceNullStack = new int[DEFAULT_STACK_SIZE];
+    private int ply;
+
+    public SearchBoard(final Board board) {
+
+        setPosition(board);
+
+    }
+
+    /**
+     * A method to copy the position of an immutable board into this search board, clearing the undo stacks
+     */
+    public void setPosition(final Board board) {
+
+        Arrays.fill(this.pieceBitBoards, 0L);
+        Arrays.fill(this.pieceOnTile, EMPTY_TILE);
+        this.unmovedPieces = 0L;
+
+        for (int tile = 0; tile < BoardUtils.NUM_TILES; tile++) {
+
+            final Piece piece = board.getPiece(tile);
+
+            if (piece != null) {
+
+                final int pieceIndex = BitBoards.pieceIndex(piece.getPieceAlliance(), piece.getPieceType());
+                this.pieceBitBoards[pieceIndex] |= BitBoards.squareMask(tile);
+                this.pieceOnTile[tile] = pieceIndex;
+
+                if (piece.isFirstMove()) {
+                    this.unmovedPieces |= BitBoards.squareMask(tile);
+                }
+
+            }
+
+        }
+
+        this.allianceOccupancy[WHITE] = board.getOccupancy(Alliance.WHITE);
+        this.allianceOccupancy[BLACK] = board.getOccupancy(Alliance.BLACK);
+        this.sideToMove = board.currentPlayer().getAlliance().ordinal();
+        this.castlingRights = board.getCastlingRights();
+
+        //The en passant tile is the tile the jumping pawn skipped over, which is where a capturing pawn lands
+        final Pawn enPassantPawn = board.getEnPassantPawn();
+        this.enPassantTile = enPassantPawn == null ? NO_EN_PASSANT :
+                enPassantPawn.getPiecePosition() - enPassantPawn.getPieceAlliance().getDirection() * 8;
+
+        this.zobristKey = board.getZobristKey();
+        this.halfmoveClock = board.getHalfmoveClock();
+        this.pliesSinceNull = this.halfmoveClock;
+        this.gameHistory = board.getPositionHistory();
+        this.ply = 0;
+
+    }
+
+    /**
+     * A method to turn the current position back into an immutable board for the GUI and the players
+     */
+    public Board toBoard() {
+
+        final Board.Builder builder = new Board.Builder();
+
+        for (int tile = 0; tile < BoardUtils.NUM_TILES; tile++) {
+
+            if (this.pieceOnTile[tile] != EMPTY_TILE) {
+
+                builder.setPiece(createPiece(this.pieceOnTile[tile], tile, BitBoards.isSet(this.unmovedPieces, tile)));
+
+            }
+
+        }
+
+        if (this.enPassantTile != NO_EN_PASSANT) {
+
+            final int jumpedPawnTile = this.enPassantTile + (this.sideToMove == WHITE ? 8 : -8);
+            builder.setEnPassantPawn((Pawn) createPiece(this.pieceOnTile[jumpedPawnTile], jumpedPawnTile, false));
+
+        }
+
+        builder.setMoveMaker(Alliance.values()[this.sideToMove]);
+        builder.setHalfmoveClock(this.halfmoveClock);
+        builder.setPositionHistory(createPositionHistory());
+        return builder.build();
+
+    }
+
+    /**
+     * A method to apply a move given as an object from the immutable board API, Move.NULL_MOVE passes the move
+     */
+    public void makeMove(final Move move) {
+
+        if (move == Move.NULL_MOVE) {
+            makeNullMove();
+            return;
+        }
+
+        makeMove(PackedMove.fromMove(move));
+
+    }
+
+    /**
+     * A method to pass the move to the other side without moving a piece, the null move a search tries to see whether
+     * the side to move is so far ahead that even doing nothing keeps it ahead. No position before a null move can be
+     * repeated after it, so the repetition check stops at the null move. The halfmove clock is left as it is, a pass is
+     * neither a pawn move nor a capture, so the fifty move rule still counts the moves before it. The side to move
+     * must not be in check, and unmakeMove takes the null move back like any other move
+     */
+    public void makeNullMove() {
+
+        ensureStackCapacity();
+
+        this.moveStack[this.ply] = NULL_MOVE_ENTRY;
+        this.capturedStack[this.ply] = EMPTY_TILE;
+        this.castlingStack[this.ply] = this.castlingRights;
+        this.enPassantStack[this.ply] = this.enPassantTile;
+        this.unmovedStack[this.ply] = this.unmovedPieces;
+        this.keyStack[this.ply] = this.zobristKey;
+        this.halfmoveStack[this.ply] = this.halfmoveClock;
+        this.pliesSinceNullStack[this.ply] = this.pliesSinceNull;
+        this.ply++;
+
+        long key = this.zobristKey;
+
+        if (this.enPassantTile != NO_EN_PASSANT) {
+            key ^= Zobrist.enPassantKey(this.enPassantTile);
+            this.enPassantTile = NO_EN_PASSANT;
+        }
+
+        this.pliesSinceNull = 0;
+        this.sideToMove ^= 1;
+        this.zobristKey = key ^ Zobrist.blackToMoveKey();
+
+    }
+
+    /**
+     * A method to apply a packed move as produced by the MoveGenerator
+     */
+    public void makeMove(final int move) {
+
+        makeMove(PackedMove.getCurrentCoordinate(move), PackedMove.getDestinationCoordinate(move),
+                PackedMove.getPromotionType(move));
+
+    }
+
+    /**
+     * A method to apply a move in place. Castling, en passant captures and pawn jumps are recognised from the piece
+     * and tiles involved; promotionType is the PieceType ordinal a pawn promotes to or NO_PROMOTION.
+     * The move must be legal in the current position, no checks are made here
+     */
+    public void makeMove(final int currentCoordinate, final int destinationCoordinate, final int promotionType) {
+
+        ensureStackCapacity();
+
+        final int movedPiece = this.pieceOnTile[currentCoordinate];
+        final int movedType = movedPiece % BitBoards.NUM_PIECE_TYPES;
+        final int us = this.sideToMove;
+        int captureTile = destinationCoordinate;
+
+        //A pawn moving diagonally onto the en passant tile captures the pawn standing behind it
+        if (movedType == PAWN && destinationCoordinate == this.enPassantTile) {
+            captureTile = destinationCoordinate + (us == WHITE ? 8 : -8);
+        }
+
+        final int capturedPiece = this.pieceOnTile[captureTile];
+
+        this.moveStack[this.ply] = currentCoordinate | (destinationCoordinate << 6) | (captureTile << 12) |
+                ((promotionType + 1) << 18);
+        this.capturedStack[this.ply] = capturedPiece;
+        this.castlingStack[this.ply] = this.castlingRights;
+        this.enPassantStack[this.ply] = this.enPassantTile;
+        this.unmovedStack[this.ply] = this.unmovedPieces;
+        this.keyStack[this.ply] = this.zobristKey;
+        this.halfmoveStack[this.ply] = this.halfmoveClock;
+        this.pliesSinceNullStack[this.ply] = this.pliesSinceNull;
+        this.ply++;
+
+        long key = this.zobristKey;
+
+        if (this.enPassantTile != NO_EN_PASSANT) {
+            key ^= Zobrist.enPassantKey(this.enPassantTile);
+            this.enPassantTile = NO_EN_PASSANT;
+        }
+
+        if (capturedPiece != EMPTY_TILE) {
+            removePiece(capturedPiece, captureTile);
+            key ^= Zobrist.pieceKey(capturedPiece, captureTile);
+        }
+
+        final int placedPiece = promotionType == NO_PROMOTION ? movedPiece :
+                us * BitBoards.NUM_PIECE_TYPES + promotionType;
+        removePiece(movedPiece, currentCoordinate);
+        addPiece(placedPiece, destinationCoordinate);
+        key ^= Zobrist.pieceKey(movedPiece, currentCoordinate) ^ Zobrist.pieceKey(placedPiece, destinationCoordinate);
+
+        if (movedType == KING && Math.abs(destinationCoordinate - currentCoordinate) == 2) {
+            //Castling, the rook jumps over to the other side of the king
+            final int rookStart = destinationCoordinate > currentCoordinate ?
+                    currentCoordinate + 3 : currentCoordinate - 4;
+            final int rookDestination = (currentCoordinate + destinationCoordinate) / 2;
+            final int rook = us * BitBoards.NUM_PIECE_TYPES + ROOK;
+            removePiece(rook, rookStart);
+            addPiece(rook, rookDestination);
+            key ^= Zobrist.pieceKey(rook, rookStart) ^ Zobrist.pieceKey(rook, rookDestination);
+            this.unmovedPieces &= ~BitBoards.squareMask(rookStart);
+        } else if (movedType == PAWN && Math.abs(destinationCoordinate - currentCoordinate) == 16) {
+            //A pawn jump, the skipped tile can be captured en passant on the next move
+            this.enPassantTile = (currentCoordinate + destinationCoordinate) / 2;
+            key ^= Zobrist.enPassantKey(this.enPassantTile);
+        }
+
+        final int newCastlingRights = BoardUtils.updateCastlingRights(this.castlingRights, currentCoordinate,
+                destinationCoordinate);
+        key ^= Zobrist.castlingKey(this.castlingRights) ^ Zobrist.castlingKey(newCastlingRights);
+        this.castlingRights = newCastlingRights;
+        this.unmovedPieces &= ~(BitBoards.squareMask(currentCoordinate) | BitBoards.squareMask(destinationCoordinate));
+
+        this.halfmoveClock = capturedPiece != EMPTY_TILE || movedType == PAWN ? 0 : this.halfmoveClock + 1;
+        this.pliesSinceNull++;
+        this.sideToMove = us ^ 1;
+        this.zobristKey = key ^ Zobrist.blackToMoveKey();
+
+    }
+
+    /**
+     * A method to take back the last move made, restoring the position exactly as it was before it
+     */
+    public void unmakeMove() {
+
+        this.ply--;
+
+        final int move = this.moveStack[this.ply];
+
+        if (move == NULL_MOVE_ENTRY) {
+            this.sideToMove ^= 1;
+            this.enPassantTile = this.enPassantStack[this.ply];
+            this.zobristKey = this.keyStack[this.ply];
+            this.halfmoveClock = this.halfmoveStack[this.ply];
+            this.pliesSinceNull = this.pliesSinceNullStack[this.ply];
+            return;
+        }
+
+        final int currentCoordinate = move & 0x3F;
+        final int destinationCoordinate = (move >>> 6) & 0x3F;
+        final int captureTile = (move >>> 12) & 0x3F;
+        final int promotionType = (move >>> 18) - 1;
+
+        this.sideToMove ^= 1;
+        final int us = this.sideToMove;
+        final int placedPiece = this.pieceOnTile[destinationCoordinate];
+        final int movedPiece = promotionType == NO_PROMOTION ? placedPiece : us * BitBoards.NUM_PIECE_TYPES + PAWN;
+
+        removePiece(placedPiece, destinationCoordinate);
+        addPiece(movedPiece, currentCoordinate);
+
+        if (movedPiece % BitBoards.NUM_PIECE_TYPES == KING &&
+                Math.abs(destinationCoordinate - currentCoordinate) == 2) {
+            final int rookStart = destinationCoordinate > currentCoordinate ?
+                    currentCoordinate + 3 : currentCoordinate - 4;
+            final int rookDestination = (currentCoordinate + destinationCoordinate) / 2;
+            final int rook = us * BitBoards.NUM_PIECE_TYPES + ROOK;
+            removePiece(rook, rookDestination);
+            addPiece(rook, rookStart);
+        }
+
+        final int capturedPiece = this.capturedStack[this.ply];
+
+        if (capturedPiece != EMPTY_TILE) {
+            addPiece(capturedPiece, captureTile);
+        }
+
+        this.castlingRights = this.castlingStack[this.ply];
+        this.enPassantTile = this.enPassantStack[this.ply];
+        this.unmovedPieces = this.unmovedStack[this.ply];
+        this.zobristKey = this.keyStack[this.ply];
+        this.halfmoveClock = this.halfmoveStack[this.ply];
+        this.pliesSinceNull = this.pliesSinceNullStack[this.ply];
+
+    }
+
+    /**
+     * A method to check whether the current position was on the board before, in the moves made on this board or in
+     * the game it was set from. Only the positions since the last pawn move, capture or null move can match and only
+     * every second one has the same side to move, so at most half of those keys are compared
+     */
+    public boolean isRepetition() {
+
+        final int reversiblePlies = Math.min(this.halfmoveClock, this.pliesSinceNull);
+
+        //Four moves are the fewest that can bring a position back
+        for (int distance = 4; distance <= reversiblePlies; distance += 2) {
+
+            final int index = this.ply - distance;
+            final long key;
+
+            if (index >= 0) {
+                key = this.keyStack[index];
+            } else if (this.gameHistory.size() + index >= 0) {
+                key = this.gameHistory.getKey(this.gameHistory.size() + index);
+            } else {
+                return false;
+            }
+
+            if (key == this.zobristKey) {
+                return true;
+            }
+
+        }
+
+        return false;
+
+    }
+
+    /**
+     * A method to check whether fifty moves by each player passed without a pawn move or a capture
+     */
+    public boolean isDrawByFiftyMoveRule() {
+
+        return this.halfmoveClock >= 100;
+
+    }
+
+    public long getPieceBitBoard(final int pieceIndex) {
+
+        return this.pieceBitBoards[pieceIndex];
+
+    }
+
+    public long getOccupancy(final int alliance) {
+
+        return this.allianceOccupancy[alliance];
+
+    }
+
+    public long getOccupancy() {
+
+        return this.allianceOccupancy[WHITE] | this.allianceOccupancy[BLACK];
+
+    }
+
+    /**
+     * A method to get the piece index standing on a tile or EMPTY_TILE
+     */
+    public int getPieceOnTile(final int tileCoordinate) {
+
+        return this.pieceOnTile[tileCoordinate];
+
+    }
+
+    /**
+     * A method to get the alliance to move as its ordinal, 0 for White and 1 for Black
+     */
+    public int getSideToMove() {
+
+        return this.sideToMove;
+
+    }
+
+    public int getCastlingRights() {
+
+        return this.castlingRights;
+
+    }
+
+    public int getEnPassantTile() {
+
+        return this.enPassantTile;
+
+    }
+
+    public long getZobristKey() {
+
+        return this.zobristKey;
+
+    }
+
+    /**
+     * A method to get the number of moves made by both players since the last pawn move or capture
+     */
+    public int getHalfmoveClock() {
+
+        return this.halfmoveClock;
+
+    }
+
+    /**
+     * A method to get the amount of moves made since the position was set
+     */
+    public int getPly() {
+
+        return this.ply;
+
+    }
+
+    private void addPiece(final int pieceIndex, final int tileCoordinate) {
+
+        final long mask = BitBoards.squareMask(tileCoordinate);
+        this.pieceBitBoards[pieceIndex] |= mask;
+        this.allianceOccupancy[pieceIndex / BitBoards.NUM_PIECE_TYPES] |= mask;
+        this.pieceOnTile[tileCoordinate] = pieceIndex;
+
+    }
+
+    private void removePiece(final int pieceIndex, final int tileCoordinate) {
+
+        final long mask = ~BitBoards.squareMask(tileCoordinate);
+        this.pieceBitBoards[pieceIndex] &= mask;
+        this.allianceOccupancy[pieceIndex / BitBoards.NUM_PIECE_TYPES] &= mask;
+        this.pieceOnTile[tileCoordinate] = EMPTY_TILE;
+
+    }
+
+    /**
+     * A method to grow the undo stacks, only needed for games longer than the default stack size
+     */
+    private void ensureStackCapacity() {
+
+        if (this.ply == this.moveStack.length) {
+
+            final int newSize = this.moveStack.length * 2;
+            this.moveStack = Arrays.copyOf(this.moveStack, newSize);
+            this.capturedStack = Arrays.copyOf(this.capturedStack, newSize);
+            this.castlingStack = Arrays.copyOf(this.castlingStack, newSize);
+            this.enPassantStack = Arrays.copyOf(this.enPassantStack, newSize);
+            this.unmovedStack = Arrays.copyOf(this.unmovedStack, newSize);
+            this.keyStack = Arrays.copyOf(this.keyStack, newSize);
+            this.halfmoveStack = Arrays.copyOf(this.halfmoveStack, newSize);
+            this.pliesSinceNullStack = Arrays.copyOf(this.pliesSinceNullStack, newSize);
+
+        }
+
+    }
+
+    /**
+     * A method to collect the keys of the positions since the last pawn move or capture for an immutable board, first
+     * the ones from the game this board was set from and then the ones of the moves made on it
+     */
+    private PositionHistory createPositionHistory() {
+
+        final int gameHistorySize = this.gameHistory.size();
+        final int totalSize = gameHistorySize + this.ply;
+        PositionHistory positionHistory = PositionHistory.EMPTY;
+
+        for (int i = Math.max(0, totalSize - this.halfmoveClock); i < totalSize; i++) {
+
+            positionHistory = positionHistory.push(i < gameHistorySize ? this.gameHistory.getKey(i) :
+                    this.keyStack[i - gameHistorySize]);
+
+        }
+
+        return positionHistory;
+
+    }
+
+    /**
+     * A method to get the piece object for a piece index when converting back to an immutable board
+     */
+    private static Piece createPiece(final int pieceIndex, final int tileCoordinate, final boolean isFirstMove) {
+
+        final Alliance alliance = Alliance.values()[pieceIndex / BitBoards.NUM_PIECE_TYPES];
+
+        return PieceUtils.getPiece(Piece.PieceType.values()[pieceIndex % BitBoards.NUM_PIECE_TYPES], alliance,
+                tileCoordinate, isFirstMove);
+
+    }
+
+}
@@ -1,6 +1,8 @@
 package com.chess.engine.board;
 
+import com.chess.engine.Alliance;
 import com.chess.engine.pieces.Piece;
+import com.chess.engine.pieces.PieceUtils;
 import com.google.common.collect.ImmutableMap;
 
 import java.util.HashMap;
@@ -36,10 +38,45 @@ public abstract class Tile {
     }
 
     /**
-     * This method creates a new tile which gives an empty tile from the cache or create a new occupied tile
+     * Cache of an occupied tile for every piece in the piece cache, stored at the same index as the piece
+     */
+    private static final OccupiedTile[] OCCUPIED_TILES_CACHE = createAllPossibleOccupiedTiles();
+
+    private static OccupiedTile[] createAllPossibleOccupiedTiles() {
+
+        final OccupiedTile[] occupiedTiles = new OccupiedTile[PieceUtils.NUM_PIECES];
+
+        for (final Piece.PieceType pieceType : Piece.PieceType.values()) {
+            for (final Alliance alliance : Alliance.values()) {
+                for (int i = 0; i < BoardUtils.NUM_TILES; i++) {
+                    for (final boolean isFirstMove : new boolean[]{false, true}) {
+
+                        final Piece piece = PieceUtils.getPiece(pieceType, alliance, i, isFirstMove);
+                        occupiedTiles[PieceUtils.cacheIndex(piece)] = new OccupiedTile(i, piece);
+
+                    }
+                }
+            }
+        }
+
+        return occupiedTiles;
+    }
+
+    /**
+     * This method gives an empty tile from the cache, or the cached occupied tile for a piece from the piece cache.
+     * Only a piece that was created outside the cache gets a new occupied tile
      */
     public static Tile createTile(final int tileCoordinate, final Piece piece) {
-        return piece != null ? new OccupiedTile(tileCoordinate, piece) : EMPTY_TILES_CACHE.get(tileCoordinate);
+
+        if (piece == null) {
+            return EMPTY_TILES_CACHE.get(tileCoordinate);
+        }
+
+        if (piece.getPiecePosition() == tileCoordinate && PieceUtils.isCached(piece)) {
+            return OCCUPIED_TILES_CACHE[PieceUtils.cacheIndex(piece)];
+        }
+
+        return new OccupiedTile(tileCoordinate, piece);
     }
 
     //Constructor to create a new empty tile at the coordinates given
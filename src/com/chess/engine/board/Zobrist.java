@@ -0,0 +1,98 @@
+package com.chess.engine.board;
+
+import com.chess.engine.pieces.Piece;
+
+import java.util.Random;
+
+/**
+ * Random keys used to give every position a 64 bit Zobrist hash. A position's key is the XOR of the key of every piece
+ * on its tile, the side to move, the castling rights and the en passant file, so a move can update the key by XOR-ing
+ * out what it removes and XOR-ing in what it adds instead of rehashing all 64 tiles
+ */
+public class Zobrist {
+
+    //Fixed seed so the same position always gets the same key between runs
+    private static final long ZOBRIST_SEED = 0x4A617661436865L;
+
+    private static final long[][] PIECE_KEYS = new long[BitBoards.NUM_PIECE_INDICES][BoardUtils.NUM_TILES];
+    private static final long[] CASTLING_KEYS = new long[BoardUtils.ALL_CASTLING_RIGHTS + 1];
+    private static final long[] EN_PASSANT_KEYS = new long[BoardUtils.NUM_TILES_PER_ROW];
+    private static final long BLACK_TO_MOVE_KEY;
+
+    static {
+        final Random random = new Random(ZOBRIST_SEED);
+        for (final long[] pieceKeys : PIECE_KEYS) {
+            for (int i = 0; i < pieceKeys.length; i++) {
+                pieceKeys[i] = random.nextLong();
+            }
+        }
+        //No castling rights at all hashes to zero so positions without castling are not affected by the table
+        for (int i = 1; i < CASTLING_KEYS.length; i++) {
+            CASTLING_KEYS[i] = random.nextLong();
+        }
+        for (int i = 0; i < EN_PASSANT_KEYS.length; i++) {
+            EN_PASSANT_KEYS[i] = random.nextLong();
+        }
+        BLACK_TO_MOVE_KEY = random.nextLong();
+    }
+
+    //Zobrist constructor with a runtimeException to prevent a user from instantiating this class
+    private Zobrist() {
+        throw new RuntimeException("You cannot instantiate me!");
+    }
+
+    /**
+     * A method to get the key of a piece standing on the given tile
+     */
+    public static long pieceKey(final Piece piece, final int tileCoordinate) {
+
+        return PIECE_KEYS[BitBoards.pieceIndex(piece.getPieceAlliance(), piece.getPieceType())][tileCoordinate];
+
+    }
+
+    /**
+     * A method to get the key of a piece by its bitboard index standing on the given tile
+     */
+    public static long pieceKey(final int pieceIndex, final int tileCoordinate) {
+
+        return PIECE_KEYS[pieceIndex][tileCoordinate];
+
+    }
+
+    /**
+     * A method to get the key of a set of castling rights made of the BoardUtils castling flags
+     */
+    public static long castlingKey(final int castlingRights) {
+
+        return CASTLING_KEYS[castlingRights];
+
+    }
+
+    /**
+     * A method to get the key of the en passant pawn, which only depends on the column the pawn jumped to
+     */
+    public static long enPassantKey(final Piece enPassantPawn) {
+
+        return enPassantPawn == null ? 0L : enPassantKey(enPassantPawn.getPiecePosition());
+
+    }
+
+    /**
+     * A method to get the en passant key for a pawn that jumped to the given tile
+     */
+    public static long enPassantKey(final int tileCoordinate) {
+
+        return EN_PASSANT_KEYS[tileCoordinate % BoardUtils.NUM_TILES_PER_ROW];
+
+    }
+
+    /**
+     * A method to get the key that is XOR-ed in whenever it is the Black alliance's turn to move
+     */
+    public static long blackToMoveKey() {
+
+        return BLACK_TO_MOVE_KEY;
+
+    }
+
+}
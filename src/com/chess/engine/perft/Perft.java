@@ -0,0 +1,386 @@
+package com.chess.engine.perft;
+
+import com.chess.engine.board.Board;
+import com.chess.engine.board.FenUtilities;
+import com.chess.engine.board.Move;
+import com.chess.engine.board.MoveGenerator;
+import com.chess.engine.board.MoveList;
+import com.chess.engine.board.MoveSetCache;
+import com.chess.engine.board.PackedMove;
+import com.chess.engine.board.SearchBoard;
+import com.chess.engine.player.MoveTransition;
+import com.chess.engine.player.Player;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Perft (performance test) counts the leaf nodes of the move tree to a fixed depth. The counts of the reference
+ * positions below are known, so a wrong count means a move generation bug and the time taken measures move generation
+ * speed. The tree is walked through the Board and Player API, with the root moves split over a fork-join pool
+ */
+public class Perft {
+
+    /**
+     * Standard perft test positions with their known leaf counts for depth 1, 2, 3 and so on
+     */
+    public static final List<ReferencePosition> REFERENCE_POSITIONS = List.of(
+            new ReferencePosition("Start position",
+                    "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1",
+                    20L, 400L, 8902L, 197281L, 4865609L, 119060324L),
+            new ReferencePosition("Kiwipete",
+                    "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1",
+                    48L, 2039L, 97862L, 4085603L, 193690690L),
+            new ReferencePosition("Position 3",
+                    "8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1",
+                    14L, 191L, 2812L, 43238L, 674624L, 11030083L),
+            new ReferencePosition("Position 4",
+                    "r3k2r/Pppp1ppp/1b3nbN/nP6/BBP1P3/q4N2/Pp1P2PP/R2Q1RK1 w kq - 0 1",
+                    6L, 264L, 9467L, 422333L, 15833292L),
+            new ReferencePosition("Position 5",
+                    "rnbq1k1r/pp1Pbppp/2p5/8/2B5/8/PPP1NnPP/RNBQK2R w KQ - 1 8",
+                    44L, 1486L, 62379L, 2103487L, 89941194L),
+            new ReferencePosition("Position 6",
+                    "r4rk1/1pp1qppp/p1np1n2/2b1p1B1/2B1P1b1/P1NP1N2/1PP1QPPP/R4RK1 w - - 0 10",
+                    46L, 2079L, 89890L, 3894594L, 164075551L)
+    );
+
+    private final boolean bulkCounting;
+    private final PerftTable table;
+    private final ForkJoinPool pool;
+
+    /**
+     * Create a perft runner. With bulk counting the last ply is counted from the number of legal moves instead of
+     * making each move, and a hash size above zero reuses the counts of subtrees reached again by a transposition
+     */
+    public Perft(final boolean bulkCounting, final int hashSizeInMegabytes) {
+
+        this.bulkCounting = bulkCounting;
+        this.table = hashSizeInMegabytes > 0 ? new PerftTable(hashSizeInMegabytes) : null;
+        this.pool = ForkJoinPool.commonPool();
+
+    }
+
+    /**
+     * A method to count the leaf nodes below a board to the given depth
+     */
+    public long perft(final Board board, final int depth) {
+
+        long nodes = 0;
+
+        for (final long count : divide(board, depth).values()) {
+            nodes += count;
+        }
+
+        return depth == 0 ? 1 : nodes;
+
+    }
+
+    /**
+     * A method to count the leaf nodes below each legal root move separately, which is how a perft difference with
+     * another engine is tracked down to the move that causes it. Each root move is counted as its own fork-join task
+     */
+    public Map<Move, Long> divide(final Board board, final int depth) {
+
+        final Map<Move, Long> counts = new LinkedHashMap<>();
+
+        if (depth <= 0) {
+            return counts;
+        }
+
+        final Player currentPlayer = board.currentPlayer();
+        final List<Move> rootMoves = new ArrayList<>();
+        final List<PerftTask> tasks = new ArrayList<>();
+
+        for (final Move move : currentPlayer.getLegalMoves()) {
+
+            final MoveTransition transition = currentPlayer.makeMove(move);
+
+            if (transition.getMoveStatus().isDone()) {
+
+                rootMoves.add(move);
+                tasks.add(new PerftTask(transition.getTransitionBoard(), depth - 1));
+
+            }
+
+        }
+
+        for (final PerftTask task : tasks) {
+            this.pool.execute(task);
+        }
+
+        for (int i = 0; i < rootMoves.size(); i++) {
+            counts.put(rootMoves.get(i), tasks.get(i).join());
+        }
+
+        return counts;
+
+    }
+
+    /**
+     * A method to count the leaf nodes below a search board with the packed legal move generator, the path the search
+     * uses. Always bulk counted and single threaded
+     */
+    public static long perft(final SearchBoard board, final int depth) {
+
+        final MoveList moves = new MoveList();
+        MoveGenerator.generateLegalMoves(board, moves);
+
+        if (depth <= 1) {
+            return depth == 1 ? moves.size() : 1;
+        }
+
+        long nodes = 0;
+
+        for (int i = 0; i < moves.size(); i++) {
+
+            board.makeMove(moves.get(i));
+            nodes += perft(board, depth - 1);
+            board.unmakeMove();
+
+        }
+
+        return nodes;
+
+    }
+
+    private long count(final Board board, final int depth) {
+
+        if (depth == 0) {
+            return 1;
+        }
+
+        final Player currentPlayer = board.currentPlayer();
+
+        if (depth == 1 && this.bulkCounting) {
+            return currentPlayer.getLegalMoveCount();
+        }
+
+        if (this.table != null) {
+
+            final long cached = this.table.probe(board.getZobristKey(), depth);
+
+            if (cached >= 0) {
+                return cached;
+            }
+
+        }
+
+        long nodes = 0;
+
+        for (final Move move : currentPlayer.getLegalMoves()) {
+
+            final MoveTransition transition = currentPlayer.makeMove(move);
+
+            if (transition.getMoveStatus().isDone()) {
+                nodes += count(transition.getTransitionBoard(), depth - 1);
+            }
+
+        }
+
+        if (this.table != null) {
+            this.table.store(board.getZobristKey(), depth, nodes);
+        }
+
+        return nodes;
+
+    }
+
+    /**
+     * Runs the reference positions up to the given depth (4 by default) and prints each count with the time taken
+     * and the nodes per second, or with "divide FEN depth" prints the count below each root move of one position.
+     * Pass "--no-bulk" to make every leaf move, "--hash N" to reuse subtree counts from an N megabyte table,
+     * "--move-set-cache N" to take the moves of pieces other than pawns from a cache of N move sets and
+     * "--search-board" to time the packed SearchBoard generator instead of the Board API
+     */
+    public static void main(final String[] args) {
+
+        boolean bulkCounting = true;
+        boolean searchBoard = false;
+        int hashSizeInMegabytes = 0;
+        MoveSetCache moveSetCache = null;
+        final List<String> arguments = new ArrayList<>();
+
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--no-bulk":
+                    bulkCounting = false;
+                    break;
+                case "--hash":
+                    hashSizeInMegabytes = Integer.parseInt(args[++i]);
+                    break;
+                case "--move-set-cache":
+                    moveSetCache = new MoveSetCache(Integer.parseInt(args[++i]));
+                    break;
+                case "--search-board":
+                    searchBoard = true;
+                    break;
+                default:
+                    arguments.add(args[i]);
+            }
+        }
+
+        final Perft perft = new Perft(bulkCounting, hashSizeInMegabytes);
+
+        if (!arguments.isEmpty() && arguments.get(0).equals("divide")) {
+
+            final Board board = FenUtilities.createGameFromFEN(arguments.get(1), moveSetCache);
+            final Map<Move, Long> counts = perft.divide(board, Integer.parseInt(arguments.get(2)));
+            long nodes = 0;
+
+            for (final Map.Entry<Move, Long> entry : counts.entrySet()) {
+                System.out.println(PackedMove.toString(PackedMove.fromMove(entry.getKey())) + ": " + entry.getValue());
+                nodes += entry.getValue();
+            }
+
+            System.out.println("Nodes: " + nodes);
+            return;
+
+        }
+
+        final int maxDepth = arguments.isEmpty() ? 4 : Integer.parseInt(arguments.get(0));
+        boolean allPassed = true;
+
+        for (final ReferencePosition position : REFERENCE_POSITIONS) {
+
+            final Board board = FenUtilities.createGameFromFEN(position.getFen(), moveSetCache);
+            System.out.println(position.getName() + ": " + position.getFen());
+
+            for (int depth = 1; depth <= Math.min(maxDepth, position.getMaxDepth()); depth++) {
+
+                final long start = System.nanoTime();
+                final long nodes = searchBoard ? perft(new SearchBoard(board), depth) : perft.perft(board, depth);
+                final long elapsed = Math.max(1, System.nanoTime() - start);
+                final boolean passed = nodes == position.getExpectedNodes(depth);
+                allPassed &= passed;
+
+                System.out.printf("  depth %d: %,d nodes in %,d ms (%,d nodes/sec) %s%n", depth, nodes,
+                        elapsed / 1_000_000, (long) (nodes * 1e9 / elapsed),
+                        passed ? "OK" : "FAILED, expected " + position.getExpectedNodes(depth));
+
+            }
+
+        }
+
+        System.out.println(allPassed ? "All perft counts match" : "Perft counts do not match");
+
+    }
+
+    /**
+     * A perft test position with its known leaf counts
+     */
+    public static final class ReferencePosition {
+
+        private final String name;
+        private final String fen;
+        private final long[] expectedNodes;
+
+        ReferencePosition(final String name, final String fen, final long... expectedNodes) {
+
+            this.name = name;
+            this.fen = fen;
+            this.expectedNodes = expectedNodes;
+
+        }
+
+        public String getName() {
+            return this.name;
+        }
+
+        public String getFen() {
+            return this.fen;
+        }
+
+        public int getMaxDepth() {
+            return this.expectedNodes.length;
+        }
+
+        public long getExpectedNodes(final int depth) {
+            return this.expectedNodes[depth - 1];
+        }
+
+    }
+
+    /**
+     * A fork-join task counting the subtree below one root move
+     */
+    private final class PerftTask extends RecursiveTask<Long> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final Board board;
+        private final int depth;
+
+        PerftTask(final Board board, final int depth) {
+
+            this.board = board;
+            this.depth = depth;
+
+        }
+
+        @Override
+        protected Long compute() {
+
+            return count(this.board, this.depth);
+
+        }
+
+    }
+
+    /**
+     * A lock-free table of subtree counts. Like the transposition table every entry stores the data and the key
+     * XOR-ed with the data, so a torn write by two threads reads back as a miss. The depth is part of the data since
+     * the same position has a different count at every depth
+     */
+    private static final class PerftTable {
+
+        private static final int DEPTH_BITS = 6;
+        private static final long DEPTH_MASK = (1L << DEPTH_BITS) - 1;
+
+        private final long[] entries;
+        private final int entryMask;
+
+        PerftTable(final int sizeInMegabytes) {
+
+            final long entryCount = Long.highestOneBit(((long) sizeInMegabytes << 20) / (2 * Long.BYTES));
+            final int entries = (int) Math.min(entryCount, Integer.highestOneBit(Integer.MAX_VALUE / 2));
+            this.entries = new long[entries * 2];
+            this.entryMask = entries - 1;
+
+        }
+
+        long probe(final long zobristKey, final int depth) {
+
+            final int index = index(zobristKey, depth);
+            final long data = this.entries[index];
+
+            if (data != 0 && (this.entries[index + 1] ^ data) == zobristKey && (data & DEPTH_MASK) == depth) {
+                return data >>> DEPTH_BITS;
+            }
+
+            return -1;
+
+        }
+
+        void store(final long zobristKey, final int depth, final long nodes) {
+
+            final int index = index(zobristKey, depth);
+            final long data = (nodes << DEPTH_BITS) | depth;
+            this.entries[index] = data;
+            this.entries[index + 1] = zobristKey ^ data;
+
+        }
+
+        private int index(final long zobristKey, final int depth) {
+
+            return (int) ((zobristKey ^ (depth * 0x9E3779B97F4A7C15L)) & this.entryMask) * 2;
+
+        }
+
+    }
+
+}
@@ -1,6 +1,7 @@
 package com.chess.engine.pieces;
 
 import com.chess.engine.Alliance;
+import com.chess.engine.board.BitBoards;
 import com.chess.engine.board.Board;
 import com.chess.engine.board.BoardUtils;
 import com.chess.engine.board.Move;
@@ -14,99 +15,143 @@ import static com.chess.engine.board.Move.*;
 
 public class Pawn extends Piece {
 
-    //Offset positions to consider for a Pawn to move to if the coordinate is not out of bounds and within chess rules
-    private final static int[] CANDIDATE_MOVE_COORDINATE = {7, 8, 9, 16};
-
     public Pawn(final Alliance pieceAlliance, final int piecePosition) {
-        super(piecePosition, pieceAlliance, PieceType.PAWN);
+        this(pieceAlliance, piecePosition, true);
+    }
+
+    public Pawn(final Alliance pieceAlliance, final int piecePosition, final boolean isFirstMove) {
+        super(piecePosition, pieceAlliance, PieceType.PAWN, isFirstMove);
     }
 
     @Override
     public Collection<Move> calculateLegalMoves(final Board board) {
 
         final List<Move> legalMoves = new ArrayList<>();
+        final long allPieces = board.getOccupancy();
+        final long opponentPieces = allPieces & ~board.getOccupancy(this.pieceAlliance);
+
+        //Get a possible destination for a pawn to move to
+        //Depending on the pawn's alliance the move will either be +8 or -8 to move
+        final int forwardDestinationCoordinate = this.piecePosition + (this.pieceAlliance.getDirection() * 8);
+
+        //Normal move for a pawn to an empty tile if the tile is on the board and not occupied
+        if (BoardUtils.isValidTileCoordinate(forwardDestinationCoordinate) &&
+                !BitBoards.isSet(allPieces, forwardDestinationCoordinate)) {
+            //A pawn reaching the last row is promoted, otherwise it is a normal pawn move
+            if (isPromotionCoordinate(forwardDestinationCoordinate)) {
+                addPromotions(legalMoves, new pawnMove(board, this, forwardDestinationCoordinate));
+            } else {
+                legalMoves.add(new pawnMove(board, this, forwardDestinationCoordinate));
+            }
 
-        for (final int currentCandidateOffset : CANDIDATE_MOVE_COORDINATE) {
-
-            //Get a possible destination for a pawn to move to
-            //Depending on the pawn's alliance the move will either be +8 or -8 to move
-            final int candidateDestinationCoordinate = this.piecePosition + (this.pieceAlliance.getDirection() * currentCandidateOffset);
+            //An if statement to check whether it is a pawn's first move from its starting row and if true the piece
+            //may do a pawn jump of 2 tiles, as long as the tile two in front of it is empty as well
+            final int jumpDestinationCoordinate = forwardDestinationCoordinate +
+                    (this.pieceAlliance.getDirection() * 8);
 
-            //Test to see whether the coordinate is on the board
-            if (!BoardUtils.isValidTileCoordinate(candidateDestinationCoordinate)) {
-                continue;
+            if (this.isFirstMove() && isOnStartingRow() && !BitBoards.isSet(allPieces, jumpDestinationCoordinate)) {
+                legalMoves.add(new pawnJump(board, this, jumpDestinationCoordinate));
             }
 
-            //Normal move for a pawn to an empty tile if the test passes
-            if (currentCandidateOffset == 8 && !board.getTile(candidateDestinationCoordinate).isTileOccupied()) {
-                //More work to do!!(PROMOTIONS OF PAWNS)
-                legalMoves.add(new MajorMove(board, this, candidateDestinationCoordinate));
+        }
 
-                //An if statement to check whether it is a pawn's first move or not and if true the piece may do a
-                //pawn jump of 2 tiles but only when it is first move
-            } else if (currentCandidateOffset == 16 && this.isFirstMove() &&
-                    (BoardUtils.SECOND_ROW[this.piecePosition] && this.getPieceAlliance().isBlack()) ||
-                    (BoardUtils.SEVENTH_ROW[this.piecePosition] && this.getPieceAlliance().isWhite())) {
+        /* The pawn attack table already excludes the diagonals that would wrap around the first and eighth column, so
+        every tile in it holding an opponent piece is a possible attacking move */
+        long attackDestinations = BitBoards.pawnAttacks(this.pieceAlliance, this.piecePosition) & opponentPieces;
+
+        while (attackDestinations != 0) {
+            final int attackDestinationCoordinate = BitBoards.firstSquare(attackDestinations);
+            final Move attackMove = new pawnAttackMove(board, this, attackDestinationCoordinate,
+                    board.getPiece(attackDestinationCoordinate));
+            if (isPromotionCoordinate(attackDestinationCoordinate)) {
+                addPromotions(legalMoves, attackMove);
+            } else {
+                legalMoves.add(attackMove);
+            }
+            attackDestinations = BitBoards.popFirstSquare(attackDestinations);
+        }
 
-                final int behindCandidateDestinationCoordinate = this.piecePosition +
-                        (this.pieceAlliance.getDirection() * 8);
+        //An opponent pawn that just made a pawn jump past this pawn's attack tile can be captured en passant, the pawn
+        //moves onto the tile the opponent pawn skipped over
+        final Pawn enPassantPawn = board.getEnPassantPawn();
 
-                //If statement to check if the immediate tile in front of a pawn is empty to ensure that
-                //it can do the pawn jump and add it to the major moves collection otherwise it is not allowed
-                if (!board.getTile(behindCandidateDestinationCoordinate).isTileOccupied() &&
-                        !board.getTile(candidateDestinationCoordinate).isTileOccupied()) {
-                    legalMoves.add(new MajorMove(board, this, candidateDestinationCoordinate));
-                }
-                /* If statement to handle a pawn's attacking move and catching edge cases for white and black alliance
-                pawns on the First and Eight column to ensure and prevent them from attacking off the board diagonally
-                 */
-            } else if (currentCandidateOffset == 7 &&
-                    !((BoardUtils.EIGHTH_COLUMN[this.piecePosition] && this.pieceAlliance.isWhite() ||
-                            (BoardUtils.FIRST_COLUMN[this.piecePosition] && this.pieceAlliance.isBlack())))) {
+        if (enPassantPawn != null && enPassantPawn.getPieceAlliance() != this.pieceAlliance) {
 
-                /* If statement to check whether a pawn can do the attacking move left diagonally and to confirm that
-                the piece to be attacked is not the same alliance and handling when a pawn is attacking into a
-                pawn promotion tile*/
-                if (board.getTile(candidateDestinationCoordinate).isTileOccupied()) {
+            final int enPassantDestinationCoordinate = enPassantPawn.getPiecePosition() +
+                    (this.pieceAlliance.getDirection() * 8);
+
+            if (BitBoards.isSet(BitBoards.pawnAttacks(this.pieceAlliance, this.piecePosition),
+                    enPassantDestinationCoordinate)) {
+                legalMoves.add(new pawnEnPassantAttackMove(board, this, enPassantDestinationCoordinate,
+                        enPassantPawn));
+            }
 
-                    final Piece pieceOnCandidate = board.getTile(candidateDestinationCoordinate).getPiece();
+        }
 
-                    if (this.pieceAlliance != pieceOnCandidate.getPieceAlliance()) {
-                        //More work to do !!
-                        legalMoves.add(new MajorMove(board, this, candidateDestinationCoordinate));
+        return ImmutableList.copyOf(legalMoves);
+    }
 
-                    }
-                }
+    /**
+     * A method to add the promotions to a queen, rook, bishop and knight for a pawn move reaching the last row
+     */
+    private void addPromotions(final List<Move> legalMoves, final Move pawnMove) {
+
+        final int destinationCoordinate = pawnMove.getDestinationCoordinate();
+        legalMoves.add(new pawnPromotion(pawnMove, createPromotionPiece(this.pieceAlliance, destinationCoordinate,
+                PieceType.QUEEN)));
+        legalMoves.add(new pawnPromotion(pawnMove, createPromotionPiece(this.pieceAlliance, destinationCoordinate,
+                PieceType.ROOK)));
+        legalMoves.add(new pawnPromotion(pawnMove, createPromotionPiece(this.pieceAlliance, destinationCoordinate,
+                PieceType.BISHOP)));
+        legalMoves.add(new pawnPromotion(pawnMove, createPromotionPiece(this.pieceAlliance, destinationCoordinate,
+                PieceType.KNIGHT)));
 
+    }
 
-            } else if (currentCandidateOffset == 9 &&
-                    !((BoardUtils.FIRST_COLUMN[this.piecePosition] && this.pieceAlliance.isWhite() ||
-                            (BoardUtils.EIGHTH_COLUMN[this.piecePosition] && this.pieceAlliance.isBlack())))) {
+    /**
+     * A method to create the piece a pawn of the given alliance is promoted to on the given tile
+     */
+    public static Piece createPromotionPiece(final Alliance alliance, final int destinationCoordinate,
+                                             final PieceType promotionType) {
+
+        switch (promotionType) {
+            case KNIGHT:
+                return PieceUtils.getKnight(alliance, destinationCoordinate, false);
+            case BISHOP:
+                return PieceUtils.getBishop(alliance, destinationCoordinate, false);
+            case ROOK:
+                return PieceUtils.getRook(alliance, destinationCoordinate, false);
+            case QUEEN:
+                return PieceUtils.getQueen(alliance, destinationCoordinate, false);
+            default:
+                throw new IllegalArgumentException("A pawn cannot be promoted to " + promotionType);
+        }
 
-                /* If statement to check whether a pawn can do the attacking move right diagonally and to confirm that
-                the piece to be attacked is not the same alliance and handling when a pawn is attacking into a
-                pawn promotion tile*/
-                if (board.getTile(candidateDestinationCoordinate).isTileOccupied()) {
+    }
 
-                    final Piece pieceOnCandidate = board.getTile(candidateDestinationCoordinate).getPiece();
+    /**
+     * A method to check whether a tile is on the last row for this pawn's alliance
+     */
+    private boolean isPromotionCoordinate(final int tileCoordinate) {
 
-                    if (this.pieceAlliance != pieceOnCandidate.getPieceAlliance()) {
-                        //More work to do !!
-                        legalMoves.add(new MajorMove(board, this, candidateDestinationCoordinate));
+        return (BoardUtils.FIRST_ROW[tileCoordinate] && this.pieceAlliance.isWhite()) ||
+                (BoardUtils.EIGHTH_ROW[tileCoordinate] && this.pieceAlliance.isBlack());
 
-                    }
-                }
+    }
 
-            }
+    /**
+     * A method to check whether the pawn is still on the row its alliance starts on
+     */
+    private boolean isOnStartingRow() {
 
-        }
+        return (BoardUtils.SECOND_ROW[this.piecePosition] && this.pieceAlliance.isBlack()) ||
+                (BoardUtils.SEVENTH_ROW[this.piecePosition] && this.pieceAlliance.isWhite());
 
-        return ImmutableList.copyOf(legalMoves);
     }
 
     @Override
     public Pawn movePiece(final Move move) {
-        return new Pawn(move.getMovedPiece().getPieceAlliance(), move.getDestinationCoordinate());
+        return PieceUtils.getPawn(move.getMovedPiece().getPieceAlliance(), move.getDestinationCoordinate(), false);
     }
 
     @Override
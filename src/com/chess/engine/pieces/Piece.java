@@ -1,10 +1,16 @@
 package com.chess.engine.pieces;
 
 import com.chess.engine.Alliance;
+import com.chess.engine.board.BitBoards;
 import com.chess.engine.board.Board;
 import com.chess.engine.board.Move;
+import com.chess.engine.board.MoveSetCache;
+import com.chess.engine.board.PackedMove;
+import com.google.common.collect.ImmutableList;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
 
 public abstract class Piece {
 
@@ -26,13 +32,12 @@ public abstract class Piece {
      * A class which will be used for every piece to assign their Position, Alliance to them as well as check
      * if it is a piece's first move
      */
-    Piece(final int piecePosition, final Alliance pieceAlliance, final PieceType pieceType) {
+    Piece(final int piecePosition, final Alliance pieceAlliance, final PieceType pieceType, final boolean isFirstMove) {
 
         this.pieceType = pieceType;
         this.piecePosition = piecePosition;
         this.pieceAlliance = pieceAlliance;
-        //More work to do!
-        this.isFirstMove = false;
+        this.isFirstMove = isFirstMove;
         this.cachedHashCode = computeHashCode();
 
     }
@@ -111,6 +116,72 @@ public abstract class Piece {
      */
     public abstract Collection<Move> calculateLegalMoves(final Board board);
 
+    /**
+     * A method to create the moves of a piece other than a pawn, which moves to exactly the tiles it attacks that its
+     * own alliance does not hold. The attacks come from the board's attack map, which a board derived by a move carries
+     * over from the previous board for every piece the move did not affect. A board given a move set cache takes the
+     * moves from the cache instead
+     */
+    protected Collection<Move> calculateAttackMapMoves(final Board board) {
+
+        if (board.getMoveSetCache() != null) {
+
+            return calculateCachedMoves(board, board.getMoveSetCache());
+
+        }
+
+        final List<Move> legalMoves = new ArrayList<>();
+        final long allPieces = board.getOccupancy();
+        long candidateDestinations = board.getAttackMap().getPieceAttacks(this.piecePosition) &
+                ~board.getOccupancy(this.pieceAlliance);
+
+        while (candidateDestinations != 0) {
+
+            final int candidateDestinationCoordinate = BitBoards.firstSquare(candidateDestinations);
+
+            //If the tile is empty the piece may move there, otherwise it holds an opponent piece that can be attacked
+            if (!BitBoards.isSet(allPieces, candidateDestinationCoordinate)) {
+
+                legalMoves.add(new Move.MajorMove(board, this, candidateDestinationCoordinate));
+
+            } else {
+
+                legalMoves.add(new Move.AttackMove(board, this, candidateDestinationCoordinate,
+                        board.getPiece(candidateDestinationCoordinate)));
+
+            }
+
+            candidateDestinations = BitBoards.popFirstSquare(candidateDestinations);
+
+        }
+
+        return ImmutableList.copyOf(legalMoves);
+
+    }
+
+    /**
+     * A method to create the moves of a piece other than a pawn from the packed moves the move set cache holds for the
+     * tiles around it, the same moves in the same order as the attack map gives
+     */
+    private Collection<Move> calculateCachedMoves(final Board board, final MoveSetCache moveSetCache) {
+
+        final long ownPieces = board.getOccupancy(this.pieceAlliance);
+        final int[] moves = moveSetCache.getMoves(this, ownPieces, board.getOccupancy() & ~ownPieces);
+        final Move[] legalMoves = new Move[moves.length];
+
+        for (int i = 0; i < moves.length; i++) {
+
+            final int destinationCoordinate = PackedMove.getDestinationCoordinate(moves[i]);
+            legalMoves[i] = PackedMove.isAttack(moves[i]) ?
+                    new Move.AttackMove(board, this, destinationCoordinate, board.getPiece(destinationCoordinate)) :
+                    new Move.MajorMove(board, this, destinationCoordinate);
+
+        }
+
+        return ImmutableList.copyOf(legalMoves);
+
+    }
+
     /**
      * A method that will get and apply a move to an existing piece the player is on and return a new piece which is
      * the same as the old piece just with an update position
@@ -0,0 +1,134 @@
+package com.chess.engine.pieces;
+
+import com.chess.engine.Alliance;
+import com.chess.engine.board.BoardUtils;
+
+/**
+ * A cache holding one instance of every piece that can exist, for every piece type, alliance, tile and first move
+ * state. Pieces are immutable, so moves and boards share these instances instead of creating a new piece every time a
+ * piece moves, and two equal pieces from the cache are always the same object
+ */
+public class PieceUtils {
+
+    //Number of first move states, a piece either has or has not made its first move
+    private static final int NUM_FIRST_MOVE_STATES = 2;
+
+    public static final int NUM_PIECES = Piece.PieceType.values().length * Alliance.values().length *
+            BoardUtils.NUM_TILES * NUM_FIRST_MOVE_STATES;
+
+    private static final Piece[] ALL_PIECES = createAllPieces();
+
+    //PieceUtils constructor with a runtimeException to prevent a user from instantiating this class
+    private PieceUtils() {
+        throw new RuntimeException("You cannot instantiate me!");
+    }
+
+    /**
+     * A method to get the cached piece of the given type, alliance, position and first move state
+     */
+    public static Piece getPiece(final Piece.PieceType pieceType, final Alliance alliance, final int piecePosition,
+                                 final boolean isFirstMove) {
+
+        return ALL_PIECES[cacheIndex(pieceType, alliance, piecePosition, isFirstMove)];
+
+    }
+
+    public static Pawn getPawn(final Alliance alliance, final int piecePosition, final boolean isFirstMove) {
+
+        return (Pawn) getPiece(Piece.PieceType.PAWN, alliance, piecePosition, isFirstMove);
+
+    }
+
+    public static Knight getKnight(final Alliance alliance, final int piecePosition, final boolean isFirstMove) {
+
+        return (Knight) getPiece(Piece.PieceType.KNIGHT, alliance, piecePosition, isFirstMove);
+
+    }
+
+    public static Bishop getBishop(final Alliance alliance, final int piecePosition, final boolean isFirstMove) {
+
+        return (Bishop) getPiece(Piece.PieceType.BISHOP, alliance, piecePosition, isFirstMove);
+
+    }
+
+    public static Rook getRook(final Alliance alliance, final int piecePosition, final boolean isFirstMove) {
+
+        return (Rook) getPiece(Piece.PieceType.ROOK, alliance, piecePosition, isFirstMove);
+
+    }
+
+    public static Queen getQueen(final Alliance alliance, final int piecePosition, final boolean isFirstMove) {
+
+        return (Queen) getPiece(Piece.PieceType.QUEEN, alliance, piecePosition, isFirstMove);
+
+    }
+
+    public static King getKing(final Alliance alliance, final int piecePosition, final boolean isFirstMove) {
+
+        return (King) getPiece(Piece.PieceType.KING, alliance, piecePosition, isFirstMove);
+
+    }
+
+    /**
+     * A method to get the index of a piece in the cache, which other caches keyed by piece (such as the occupied tile
+     * cache) use as well
+     */
+    public static int cacheIndex(final Piece piece) {
+
+        return cacheIndex(piece.getPieceType(), piece.getPieceAlliance(), piece.getPiecePosition(),
+                piece.isFirstMove());
+
+    }
+
+    /**
+     * A method to check whether a piece is the cached instance, pieces created with a constructor are equal to the
+     * cached instance but not the same object
+     */
+    public static boolean isCached(final Piece piece) {
+
+        return ALL_PIECES[cacheIndex(piece)] == piece;
+
+    }
+
+    private static int cacheIndex(final Piece.PieceType pieceType, final Alliance alliance, final int piecePosition,
+                                  final boolean isFirstMove) {
+
+        return ((pieceType.ordinal() * Alliance.values().length + alliance.ordinal()) * BoardUtils.NUM_TILES +
+                piecePosition) * NUM_FIRST_MOVE_STATES + (isFirstMove ? 1 : 0);
+
+    }
+
+    private static Piece[] createAllPieces() {
+
+        final Piece[] pieces = new Piece[NUM_PIECES];
+
+        for (final Alliance alliance : Alliance.values()) {
+
+            for (int position = 0; position < BoardUtils.NUM_TILES; position++) {
+
+                for (final boolean isFirstMove : new boolean[]{false, true}) {
+
+                    pieces[cacheIndex(Piece.PieceType.PAWN, alliance, position, isFirstMove)] =
+                            new Pawn(alliance, position, isFirstMove);
+                    pieces[cacheIndex(Piece.PieceType.KNIGHT, alliance, position, isFirstMove)] =
+                            new Knight(alliance, position, isFirstMove);
+                    pieces[cacheIndex(Piece.PieceType.BISHOP, alliance, position, isFirstMove)] =
+                            new Bishop(alliance, position, isFirstMove);
+                    pieces[cacheIndex(Piece.PieceType.ROOK, alliance, position, isFirstMove)] =
+                            new Rook(alliance, position, isFirstMove);
+                    pieces[cacheIndex(Piece.PieceType.QUEEN, alliance, position, isFirstMove)] =
+                            new Queen(alliance, position, isFirstMove);
+                    pieces[cacheIndex(Piece.PieceType.KING, alliance, position, isFirstMove)] =
+                            new King(alliance, position, isFirstMove);
+
+                }
+
+            }
+
+        }
+
+        return pieces;
+
+    }
+
+}
@@ -8,6 +8,7 @@ import com.chess.engine.board.Move.queenSideCastleMove;
 import com.chess.engine.board.Tile;
 import com.chess.engine.pieces.Piece;
 import com.chess.engine.pieces.Rook;
+import com.google.common.base.Supplier;
 import com.google.common.collect.ImmutableList;
 
 import java.util.ArrayList;
@@ -15,10 +16,9 @@ import java.util.Collection;
 import java.util.List;
 
 public class BlackPlayer extends Player {
-    public BlackPlayer(final Board board, final Collection<Move> whiteStandardLegalMoves,
-                       final Collection<Move> blackStandardLegalMoves) {
+    public BlackPlayer(final Board board, final Supplier<Collection<Move>> blackStandardLegalMoves) {
 
-        super(board, blackStandardLegalMoves, whiteStandardLegalMoves);
+        super(board, blackStandardLegalMoves);
 
     }
 
@@ -38,8 +38,7 @@ public class BlackPlayer extends Player {
     }
 
     @Override
-    protected Collection<Move> calculateKingCastles(final Collection<Move> playerLegals,
-                                                    final Collection<Move> opponentsLegals) {
+    protected Collection<Move> calculateKingCastles(final Collection<Move> playerLegals) {
 
         final List<Move> kingCastles = new ArrayList<>();
         //If statements to check whether a player is eligible to make a castling move or not and if eligible then add
@@ -54,8 +53,9 @@ public class BlackPlayer extends Player {
 
                 if (rookTile.isTileOccupied() && rookTile.getPiece().isFirstMove()) {
 
-                    if (Player.calculateAttacksOnTile(5, opponentsLegals).isEmpty() &&
-                            Player.calculateAttacksOnTile(6, opponentsLegals).isEmpty() &&
+                    //The king may not pass through or land on a tile the opponent attacks
+                    if (!this.board.getAttackMap().isAttacked(5, Alliance.WHITE) &&
+                            !this.board.getAttackMap().isAttacked(6, Alliance.WHITE) &&
                             rookTile.getPiece().getPieceType().isRook()) {
 
                         kingCastles.add(new kingSideCastleMove(this.board, this.playerKing, 6,
@@ -74,9 +74,14 @@ public class BlackPlayer extends Player {
 
                 if (rookTile.isTileOccupied() && rookTile.getPiece().isFirstMove()) {
 
-                    kingCastles.add(new queenSideCastleMove(this.board, this.playerKing, 2,
-                            (Rook) rookTile.getPiece(), rookTile.getTileCoordinate(), 3));
+                    if (!this.board.getAttackMap().isAttacked(3, Alliance.WHITE) &&
+                            !this.board.getAttackMap().isAttacked(2, Alliance.WHITE) &&
+                            rookTile.getPiece().getPieceType().isRook()) {
+
+                        kingCastles.add(new queenSideCastleMove(this.board, this.playerKing, 2,
+                                (Rook) rookTile.getPiece(), rookTile.getTileCoordinate(), 3));
 
+                    }
                 }
             }
         }
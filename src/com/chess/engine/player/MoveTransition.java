@@ -20,6 +20,18 @@ public class MoveTransition {
 
     }
 
+    public Board getTransitionBoard() {
+
+        return this.transitionBoard;
+
+    }
+
+    public Move getMove() {
+
+        return this.move;
+
+    }
+
     public MoveStatus getMoveStatus() {
 
         return this.moveStatus;
@@ -1,35 +1,48 @@
 package com.chess.engine.player;
 
 import com.chess.engine.Alliance;
+import com.chess.engine.board.AttackMap;
+import com.chess.engine.board.BitBoards;
 import com.chess.engine.board.Board;
 import com.chess.engine.board.Move;
+import com.chess.engine.board.MoveIndex;
 import com.chess.engine.pieces.King;
 import com.chess.engine.pieces.Piece;
+import com.google.common.base.Supplier;
+import com.google.common.base.Suppliers;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Iterables;
 
-import java.util.ArrayList;
 import java.util.Collection;
-import java.util.List;
 
 public abstract class Player {
 
     protected final Board board;
     protected final King playerKing;
-    protected final Collection<Move> legalMoves;
-    private final boolean isInCheck;
+    private final Supplier<Collection<Move>> legalMoves;
+    private final Supplier<MoveIndex> moveIndex;
+    private final Supplier<Boolean> isInCheck;
+    private final Supplier<Long> checkers;
+    private final Supplier<Long> pinnedPieces;
 
-    Player(final Board board, final Collection<Move> legalMoves, final Collection<Move> opponentMoves) {
+    Player(final Board board, final Supplier<Collection<Move>> legalMoves) {
 
         this.board = board;
         this.playerKing = establishKing();
-        //Concat a player's legal moves as well as the castling moves and passing in opponent's moves to determine
-        //if the player can perform a castling move or not
-        this.legalMoves = ImmutableList.copyOf(Iterables.concat(legalMoves, calculateKingCastles(
-                legalMoves, opponentMoves)));
-        //A method to determine if an opponents current moves attack the king position and get a list of moves
-        //and if that list is not empty then the player will be placed in check
-        this.isInCheck = !Player.calculateAttacksOnTile(this.playerKing.getPiecePosition(), opponentMoves).isEmpty();
+        //The player is in check when the king's tile is one of the tiles the opponent attacks, read from the board's
+        //attack map instead of generating the opponent's moves
+        this.isInCheck = Suppliers.memoize(() -> this.board.getAttackMap()
+                .isAttacked(this.playerKing.getPiecePosition(), getOpponent().getAlliance()));
+        //Concat a player's legal moves as well as the castling moves, only done the first time the moves are asked for
+        this.legalMoves = Suppliers.memoize(() -> ImmutableList.copyOf(Iterables.concat(legalMoves.get(),
+                calculateKingCastles(legalMoves.get()))));
+        //The legal moves indexed by their tiles, built the first time a move is looked up or checked
+        this.moveIndex = Suppliers.memoize(() -> new MoveIndex(getLegalMoves()));
+        //The opponent pieces giving check and this player's pieces pinned to its king, worked out once from the
+        //board's bitboards so the player to move can judge its moves without executing them
+        this.checkers = Suppliers.memoize(() -> this.board.getAttackersTo(this.playerKing.getPiecePosition(),
+                getOpponent().getAlliance()));
+        this.pinnedPieces = Suppliers.memoize(() -> this.board.getPinnedPieces(getAlliance()));
 
     }
 
@@ -41,51 +54,41 @@ public abstract class Player {
 
     public Collection<Move> getLegalMoves() {
 
-        return this.legalMoves;
+        return this.legalMoves.get();
 
     }
 
-    /**
-     * A method to go through the opponents list of moves to see if any of the moves destination coordinate is that
-     * of the other player's King position meaning it will be attacking the king
-     */
-    protected static Collection<Move> calculateAttacksOnTile(int piecePosition, Collection<Move> moves) {
-        final List<Move> attackMoves = new ArrayList<>();
+    //A method to ensure that there is a King for the player on the board to ensure the game is still taking place
+    //The king is found straight from the king bitboard instead of scanning the active pieces
+    private King establishKing() {
 
-        for (final Move move : moves) {
-            if (piecePosition == move.getDestinationCoordinate()) {
+        final long kingBitBoard = this.board.getPieceBitBoard(getAlliance(), Piece.PieceType.KING);
 
-                attackMoves.add(move);
+        if (kingBitBoard == 0) {
 
-            }
+            throw new RuntimeException("Should not reach here! Not a valid board");
 
         }
 
-        return ImmutableList.copyOf(attackMoves);
+        return (King) this.board.getPiece(BitBoards.firstSquare(kingBitBoard));
     }
 
-    //A method to ensure that there is a King for the player on the board to ensure the game is still taking place
-    private King establishKing() {
-
-        for (final Piece piece : getActivePieces()) {
-
-            if (piece.getPieceType().isKing()) {
-
-                return (King) piece;
-
-            }
+    /**
+     * A method to get the player's legal moves indexed by the tiles they start on and go to
+     */
+    public MoveIndex getMoveIndex() {
 
-        }
+        return this.moveIndex.get();
 
-        throw new RuntimeException("Should not reach here! Not a valid board");
     }
 
     /**
-     * A method to test if a move is contained in a player's legal move collection
+     * A method to test if a move is contained in a player's legal move collection, only the legal moves between the
+     * same two tiles are compared with it
      */
     public boolean isMoveLegal(final Move move) {
 
-        return this.legalMoves.contains(move);
+        return getMoveIndex().contains(move);
 
     }
 
@@ -93,30 +96,36 @@ public abstract class Player {
      * A method to test/check whether a player is placed in check or not
      */
     public boolean isInCheck() {
-        return this.isInCheck;
+        return this.isInCheck.get();
     }
 
     /**
      * A method to test/check whether a player is placed in check mate or not
      */
     public boolean isInCheckMate() {
-        return this.isInCheck && !hasEscapeMoves();
+        return isInCheck() && !hasEscapeMoves();
     }
 
     /**
      * A method to check whether players reached a stalemate or not
      */
     public boolean isInStaleMate() {
-        return !this.isInCheck && !hasEscapeMoves();
+        return !isInCheck() && !hasEscapeMoves();
     }
 
     /**
-     * A method to calculate whether a King can escape by going through each of the player's legal moves and
-     * setting each move where the King can escape to true
+     * A method to calculate whether a King can escape. For the player to move the moves are counted on the board
+     * itself, otherwise each of the player's legal moves is tried on a transition board
      */
     protected boolean hasEscapeMoves() {
 
-        for (final Move move : this.legalMoves) {
+        if (isMoveMaker()) {
+
+            return countLegalMoves() != 0;
+
+        }
+
+        for (final Move move : getLegalMoves()) {
 
             final MoveTransition transition = makeMove(move);
 
@@ -130,6 +139,33 @@ public abstract class Player {
         return false;
     }
 
+    /**
+     * A method to count the moves that can really be played. For the player to move no transition board is created
+     */
+    public int getLegalMoveCount() {
+
+        if (isMoveMaker()) {
+
+            return countLegalMoves();
+
+        }
+
+        int legalMoveCount = 0;
+
+        for (final Move move : getLegalMoves()) {
+
+            if (makeMove(move).getMoveStatus().isDone()) {
+
+                legalMoveCount++;
+
+            }
+
+        }
+
+        return legalMoveCount;
+
+    }
+
     /**
      * A method to check if a player made use of the castling strategy in chess or not(swapping a king and a rook)
      */
@@ -151,17 +187,27 @@ public abstract class Player {
 
         }
 
+        //For the player to move the board tells whether a move keeps the king safe, so a move that does not can be
+        //refused without creating the transition board
+        if (isMoveMaker()) {
+
+            if (leavesKingInCheck(move)) {
+
+                return new MoveTransition(this.board, move, MoveStatus.LEAVES_PLAYER_IN_CHECK);
+
+            }
+
+            return new MoveTransition(move.execute(), move, MoveStatus.DONE);
+
+        }
+
         //Polymorphic-ally execute the player moves on a transition board which has not been created yet and return
         //the new board
         final Board transitionBoard = move.execute();
 
-        //This variable determines if there are any attacks on a player's king and if there are then the move should not
-        //be able to execute and the board doesn't change but the move status changes
-        final Collection<Move> kingAttacks = Player.calculateAttacksOnTile(
-                transitionBoard.currentPlayer().getOpponent().getPlayerKing().getPiecePosition(),
-                transitionBoard.currentPlayer().getLegalMoves());
-
-        if (!kingAttacks.isEmpty()) {
+        //If the player's king is attacked on the transition board then the move should not be able to execute and the
+        //board doesn't change but the move status changes
+        if (transitionBoard.currentPlayer().getOpponent().isInCheck()) {
 
             return new MoveTransition(this.board, move, MoveStatus.LEAVES_PLAYER_IN_CHECK);
 
@@ -170,6 +216,149 @@ public abstract class Player {
         return new MoveTransition(transitionBoard, move, MoveStatus.DONE);
     }
 
+    /**
+     * A method to check whether it is this player's turn on the board
+     */
+    private boolean isMoveMaker() {
+
+        return this.board.currentPlayer().getAlliance() == getAlliance();
+
+    }
+
+    /**
+     * A method to count the moves of the player to move that do not leave its king attacked, without creating the
+     * moves of any piece but the pawns. Every other piece moves to the tiles the attack map gives it that its own
+     * alliance does not hold, so those moves are counted straight from the attack map, kept to the tiles that answer a
+     * check and to the line of a pin
+     */
+    private int countLegalMoves() {
+
+        final long ownPieces = this.board.getOccupancy(getAlliance());
+        final long pawns = this.board.getPieceBitBoard(getAlliance(), Piece.PieceType.PAWN);
+        final int kingTile = this.playerKing.getPiecePosition();
+        final long targets = calculateCheckTargets();
+        final long pinnedPieces = this.pinnedPieces.get();
+        final AttackMap attackMap = this.board.getAttackMap();
+        int legalMoveCount = 0;
+
+        for (long pieces = ownPieces & ~pawns & ~BitBoards.squareMask(kingTile); pieces != 0;
+             pieces = BitBoards.popFirstSquare(pieces)) {
+
+            final int tileCoordinate = BitBoards.firstSquare(pieces);
+            long destinations = attackMap.getPieceAttacks(tileCoordinate) & ~ownPieces & targets;
+
+            if (BitBoards.isSet(pinnedPieces, tileCoordinate)) {
+                destinations &= BitBoards.line(kingTile, tileCoordinate);
+            }
+
+            legalMoveCount += BitBoards.count(destinations);
+
+        }
+
+        for (long destinations = attackMap.getPieceAttacks(kingTile) & ~ownPieces; destinations != 0;
+             destinations = BitBoards.popFirstSquare(destinations)) {
+
+            final int destinationCoordinate = BitBoards.firstSquare(destinations);
+
+            if (!isAttackedAfter(kingTile, destinationCoordinate, destinationCoordinate, destinationCoordinate)) {
+                legalMoveCount++;
+            }
+
+        }
+
+        for (long pieces = pawns; pieces != 0; pieces = BitBoards.popFirstSquare(pieces)) {
+
+            for (final Move move : this.board.getPiece(BitBoards.firstSquare(pieces)).calculateLegalMoves(this.board)) {
+
+                if (!leavesKingInCheck(move)) {
+                    legalMoveCount++;
+                }
+
+            }
+
+        }
+
+        //Castling does not depend on the other moves, and only castling moves that are legal are generated
+        return legalMoveCount + calculateKingCastles(ImmutableList.of()).size();
+
+    }
+
+    /**
+     * A method to get the tiles a piece other than the king may move to with respect to check: every tile outside
+     * check, the checker and the tiles between it and the king in single check, and none in double check
+     */
+    private long calculateCheckTargets() {
+
+        final long checkers = this.checkers.get();
+
+        if (checkers == 0) {
+            return ~BitBoards.EMPTY;
+        }
+
+        if (BitBoards.popFirstSquare(checkers) != 0) {
+            return BitBoards.EMPTY;
+        }
+
+        return checkers | BitBoards.between(this.playerKing.getPiecePosition(), BitBoards.firstSquare(checkers));
+
+    }
+
+    /**
+     * A method to check whether a legal move of the player to move leaves its king attacked, from the checkers and
+     * pinned pieces found up front. A piece other than the king has to answer a check and a pinned piece has to stay
+     * on the line of its pin. The king itself and the rare en passant capture, which takes two pieces off one row, are
+     * checked against the occupancy the move leaves behind. Castling moves are only generated when the king is not in
+     * check and does not pass or land on an attacked tile
+     */
+    private boolean leavesKingInCheck(final Move move) {
+
+        if (move.isCastlingMove()) {
+
+            return false;
+
+        }
+
+        final int currentCoordinate = move.getCurrentCoordinate();
+        final int destinationCoordinate = move.getDestinationCoordinate();
+        final int kingTile = this.playerKing.getPiecePosition();
+
+        if (currentCoordinate == kingTile) {
+
+            return isAttackedAfter(currentCoordinate, destinationCoordinate, destinationCoordinate,
+                    destinationCoordinate);
+
+        }
+
+        if (move instanceof Move.pawnEnPassantAttackMove) {
+
+            return isAttackedAfter(currentCoordinate, destinationCoordinate,
+                    move.getAttackedPiece().getPiecePosition(), kingTile);
+
+        }
+
+        return !BitBoards.isSet(calculateCheckTargets(), destinationCoordinate) ||
+                BitBoards.isSet(this.pinnedPieces.get(), currentCoordinate) &&
+                        !BitBoards.isSet(BitBoards.line(kingTile, currentCoordinate), destinationCoordinate);
+
+    }
+
+    /**
+     * A method to check whether the opponent attacks the king's tile after a piece moved from one tile to another and
+     * took whatever stood on the captured tile, which no longer counts as an attacker. An empty captured tile takes
+     * nothing off the board
+     */
+    private boolean isAttackedAfter(final int currentCoordinate, final int destinationCoordinate,
+                                    final int capturedCoordinate, final int kingTile) {
+
+        final long capturedPiece = BitBoards.squareMask(capturedCoordinate);
+        final long occupancyAfter = (this.board.getOccupancy() & ~BitBoards.squareMask(currentCoordinate) &
+                ~capturedPiece) | BitBoards.squareMask(destinationCoordinate);
+
+        return (this.board.getAttackersTo(kingTile, getOpponent().getAlliance(), occupancyAfter) &
+                ~capturedPiece) != 0;
+
+    }
+
     /**
      * A get method to return a list/collection of active pieces on a player's Alliance
      */
@@ -188,7 +377,6 @@ public abstract class Player {
     /**
      * A method that will be used to determine if a player can Castle with their king and rook or not
      */
-    protected abstract Collection<Move> calculateKingCastles(
-            Collection<Move> playerLegals, Collection<Move> opponentsLegals);
+    protected abstract Collection<Move> calculateKingCastles(Collection<Move> playerLegals);
 
 }
@@ -6,6 +6,7 @@ import com.chess.engine.board.Move;
 import com.chess.engine.board.Tile;
 import com.chess.engine.pieces.Piece;
 import com.chess.engine.pieces.Rook;
+import com.google.common.base.Supplier;
 import com.google.common.collect.ImmutableList;
 
 import java.util.ArrayList;
@@ -15,10 +16,9 @@ import java.util.List;
 import static com.chess.engine.board.Move.*;
 
 public class WhitePlayer extends Player {
-    public WhitePlayer(final Board board, final Collection<Move> whiteStandardLegalMoves,
-                       final Collection<Move> blackStandardLegalMoves) {
+    public WhitePlayer(final Board board, final Supplier<Collection<Move>> whiteStandardLegalMoves) {
 
-        super(board, whiteStandardLegalMoves, blackStandardLegalMoves);
+        super(board, whiteStandardLegalMoves);
 
 
     }
@@ -39,8 +39,7 @@ public class WhitePlayer extends Player {
     }
 
     @Override
-    protected Collection<Move> calculateKingCastles(final Collection<Move> playerLegals,
-                                                    final Collection<Move> opponentsLegals) {
+    protected Collection<Move> calculateKingCastles(final Collection<Move> playerLegals) {
 
         final List<Move> kingCastles = new ArrayList<>();
         //If statements to check whether a player is eligible to make a castling move or not and if eligible then add
@@ -55,8 +54,9 @@ public class WhitePlayer extends Player {
 
                 if (rookTile.isTileOccupied() && rookTile.getPiece().isFirstMove()) {
 
-                    if (Player.calculateAttacksOnTile(61, opponentsLegals).isEmpty() &&
-                            Player.calculateAttacksOnTile(62, opponentsLegals).isEmpty() &&
+                    //The king may not pass through or land on a tile the opponent attacks
+                    if (!this.board.getAttackMap().isAttacked(61, Alliance.BLACK) &&
+                            !this.board.getAttackMap().isAttacked(62, Alliance.BLACK) &&
                             rookTile.getPiece().getPieceType().isRook()) {
 
                         kingCastles.add(new kingSideCastleMove(this.board, this.playerKing, 62,
@@ -75,9 +75,14 @@ public class WhitePlayer extends Player {
 
                 if (rookTile.isTileOccupied() && rookTile.getPiece().isFirstMove()) {
 
-                    kingCastles.add(new queenSideCastleMove(this.board, this.playerKing, 58,
-                            (Rook) rookTile.getPiece(), rookTile.getTileCoordinate(), 59));
+                    if (!this.board.getAttackMap().isAttacked(59, Alliance.BLACK) &&
+                            !this.board.getAttackMap().isAttacked(58, Alliance.BLACK) &&
+                            rookTile.getPiece().getPieceType().isRook()) {
+
+                        kingCastles.add(new queenSideCastleMove(this.board, this.playerKing, 58,
+                                (Rook) rookTile.getPiece(), rookTile.getTileCoordinate(), 59));
 
+                    }
                 }
             }
         }
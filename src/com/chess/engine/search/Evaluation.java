@@ -0,0 +1,156 @@
+package com.chess.engine.search;
+
+import com.chess.engine.Alliance;
+import com.chess.engine.board.BitBoards;
+import com.chess.engine.board.SearchBoard;
+import com.chess.engine.pieces.Piece;
+
+/**
+ * A static evaluation of a search board: the material of each side plus a bonus or penalty for the tile every piece
+ * stands on. The piece-square tables are written from White's side with the eighth row first, which is the order of the
+ * tiles on this board, so a White piece reads its own tile and a Black piece reads the tile mirrored to its side
+ */
+public class Evaluation {
+
+    public static final int PAWN_VALUE = 100;
+    public static final int KNIGHT_VALUE = 320;
+    public static final int BISHOP_VALUE = 330;
+    public static final int ROOK_VALUE = 500;
+    public static final int QUEEN_VALUE = 900;
+
+    //Indexed by PieceType ordinal, the king is never captured so it has no material value
+    static final int[] PIECE_VALUES = {PAWN_VALUE, KNIGHT_VALUE, BISHOP_VALUE, ROOK_VALUE, QUEEN_VALUE, 0};
+
+    //Once both sides together have no more than this much material besides pawns the king should become active
+    private static final int ENDGAME_MATERIAL = 2 * ROOK_VALUE + 2 * BISHOP_VALUE;
+
+    //XOR-ing a tile with 56 mirrors it to the same column on the opposite row
+    private static final int MIRROR = 56;
+
+    private static final int[] PAWN_TABLE = {
+            0, 0, 0, 0, 0, 0, 0, 0,
+            50, 50, 50, 50, 50, 50, 50, 50,
+            10, 10, 20, 30, 30, 20, 10, 10,
+            5, 5, 10, 25, 25, 10, 5, 5,
+            0, 0, 0, 20, 20, 0, 0, 0,
+            5, -5, -10, 0, 0, -10, -5, 5,
+            5, 10, 10, -20, -20, 10, 10, 5,
+            0, 0, 0, 0, 0, 0, 0, 0
+    };
+
+    private static final int[] KNIGHT_TABLE = {
+            -50, -40, -30, -30, -30, -30, -40, -50,
+            -40, -20, 0, 0, 0, 0, -20, -40,
+            -30, 0, 10, 15, 15, 10, 0, -30,
+            -30, 5, 15, 20, 20, 15, 5, -30,
+            -30, 0, 15, 20, 20, 15, 0, -30,
+            -30, 5, 10, 15, 15, 10, 5, -30,
+            -40, -20, 0, 5, 5, 0, -20, -40,
+            -50, -40, -30, -30, -30, -30, -40, -50
+    };
+
+    private static final int[] BISHOP_TABLE = {
+            -20, -10, -10, -10, -10, -10, -10, -20,
+            -10, 0, 0, 0, 0, 0, 0, -10,
+            -10, 0, 5, 10, 10, 5, 0, -10,
+            -10, 5, 5, 10, 10, 5, 5, -10,
+            -10, 0, 10, 10, 10, 10, 0, -10,
+            -10, 10, 10, 10, 10, 10, 10, -10,
+            -10, 5, 0, 0, 0, 0, 5, -10,
+            -20, -10, -10, -10, -10, -10, -10, -20
+    };
+
+    private static final int[] ROOK_TABLE = {
+            0, 0, 0, 0, 0, 0, 0, 0,
+            5, 10, 10, 10, 10, 10, 10, 5,
+            -5, 0, 0, 0, 0, 0, 0, -5,
+            -5, 0, 0, 0, 0, 0, 0, -5,
+            -5, 0, 0, 0, 0, 0, 0, -5,
+            -5, 0, 0, 0, 0, 0, 0, -5,
+            -5, 0, 0, 0, 0, 0, 0, -5,
+            0, 0, 0, 5, 5, 0, 0, 0
+    };
+
+    private static final int[] QUEEN_TABLE = {
+            -20, -10, -10, -5, -5, -10, -10, -20,
+            -10, 0, 0, 0, 0, 0, 0, -10,
+            -10, 0, 5, 5, 5, 5, 0, -10,
+            -5, 0, 5, 5, 5, 5, 0, -5,
+            0, 0, 5, 5, 5, 5, 0, -5,
+            -10, 5, 5, 5, 5, 5, 0, -10,
+            -10, 0, 5, 0, 0, 0, 0, -10,
+            -20, -10, -10, -5, -5, -10, -10, -20
+    };
+
+    private static final int[] KING_MIDDLEGAME_TABLE = {
+            -30, -40, -40, -50, -50, -40, -40, -30,
+            -30, -40, -40, -50, -50, -40, -40, -30,
+            -30, -40, -40, -50, -50, -40, -40, -30,
+            -30, -40, -40, -50, -50, -40, -40, -30,
+            -20, -30, -30, -40, -40, -30, -30, -20,
+            -10, -20, -20, -20, -20, -20, -20, -10,
+            20, 20, 0, 0, 0, 0, 20, 20,
+            20, 30, 10, 0, 0, 10, 30, 20
+    };
+
+    private static final int[] KING_ENDGAME_TABLE = {
+            -50, -40, -30, -20, -20, -30, -40, -50,
+            -30, -20, -10, 0, 0, -10, -20, -30,
+            -30, -10, 20, 30, 30, 20, -10, -30,
+            -30, -10, 30, 40, 40, 30, -10, -30,
+            -30, -10, 30, 40, 40, 30, -10, -30,
+            -30, -10, 20, 30, 30, 20, -10, -30,
+            -30, -30, 0, 0, 0, 0, -30, -30,
+            -50, -30, -30, -30, -30, -30, -30, -50
+    };
+
+    private static final int[][] PIECE_TABLES = {PAWN_TABLE, KNIGHT_TABLE, BISHOP_TABLE, ROOK_TABLE, QUEEN_TABLE};
+
+    private static final int WHITE = Alliance.WHITE.ordinal();
+    private static final int PAWN = Piece.PieceType.PAWN.ordinal();
+    private static final int KING = Piece.PieceType.KING.ordinal();
+
+    //Evaluation constructor with a runtimeException to prevent a user from instantiating this class
+    private Evaluation() {
+        throw new RuntimeException("You cannot instantiate me!");
+    }
+
+    /**
+     * A method to score a position in centipawns from the point of view of the side to move, positive when the side
+     * to move is better
+     */
+    public static int evaluate(final SearchBoard board) {
+
+        int score = 0;
+        int nonPawnMaterial = 0;
+
+        for (int type = 0; type < KING; type++) {
+
+            final int[] table = PIECE_TABLES[type];
+            final int value = PIECE_VALUES[type];
+
+            for (long pieces = board.getPieceBitBoard(type); pieces != 0; pieces = BitBoards.popFirstSquare(pieces)) {
+                score += value + table[BitBoards.firstSquare(pieces)];
+            }
+
+            for (long pieces = board.getPieceBitBoard(BitBoards.NUM_PIECE_TYPES + type); pieces != 0;
+                 pieces = BitBoards.popFirstSquare(pieces)) {
+                score -= value + table[BitBoards.firstSquare(pieces) ^ MIRROR];
+            }
+
+            if (type != PAWN) {
+                nonPawnMaterial += value * BitBoards.count(board.getPieceBitBoard(type) |
+                        board.getPieceBitBoard(BitBoards.NUM_PIECE_TYPES + type));
+            }
+
+        }
+
+        final int[] kingTable = nonPawnMaterial <= ENDGAME_MATERIAL ? KING_ENDGAME_TABLE : KING_MIDDLEGAME_TABLE;
+        score += kingTable[BitBoards.firstSquare(board.getPieceBitBoard(KING))];
+        score -= kingTable[BitBoards.firstSquare(board.getPieceBitBoard(BitBoards.NUM_PIECE_TYPES + KING)) ^ MIRROR];
+
+        return board.getSideToMove() == WHITE ? score : -score;
+
+    }
+
+}
@@ -0,0 +1,144 @@
+package com.chess.engine.search;
+
+import com.chess.engine.board.BitBoards;
+import com.chess.engine.board.BoardUtils;
+import com.chess.engine.board.PackedMove;
+import com.chess.engine.board.SearchBoard;
+
+import java.util.Arrays;
+
+/**
+ * What a search learned about quiet moves, used to order the quiet moves of later positions. All tables are flat
+ * primitive arrays owned by one search thread:
+ * - the butterfly history scores a move by its side, current tile and destination tile
+ * - the counter move is the quiet move that last refuted a move, by the piece that made that move and where it went
+ * - the continuation histories score a move by the move played one and two plies before it, since a good answer to a
+ *   move tends to stay good wherever that move is played
+ *
+ * A move that causes a beta cutoff gets a bonus and the quiet moves searched before it get the same amount as a
+ * penalty. Every update pulls an entry back towards zero by its own size, so no entry ever leaves MAX_HISTORY
+ */
+public final class MoveHistory {
+
+    //A move given as the piece that moved and the tile it went to, the context of a move played after it
+    public static final int NO_CONTEXT = -1;
+
+    static final int MAX_HISTORY = 16384;
+
+    private static final int NUM_CONTEXTS = BitBoards.NUM_PIECE_INDICES * BoardUtils.NUM_TILES;
+    //The current and destination tile of a packed move, together a 12 bit index
+    private static final int MOVE_TILES_MASK = 0xFFF;
+    private static final int MAX_BONUS = 1200;
+
+    private final int[] butterflyHistory = new int[2 * (MOVE_TILES_MASK + 1)];
+    private final int[] counterMoves = new int[NUM_CONTEXTS];
+    //The two continuation histories have an entry for every pair of contexts, 1.2 MB each as shorts, which hold any
+    //entry since none ever leaves MAX_HISTORY
+    private final short[] counterMoveHistory = new short[NUM_CONTEXTS * NUM_CONTEXTS];
+    private final short[] followUpHistory = new short[NUM_CONTEXTS * NUM_CONTEXTS];
+
+    /**
+     * A method to get the context of a move made on a board, to be called before the move is made
+     */
+    public static int context(final SearchBoard board, final int move) {
+
+        return board.getPieceOnTile(PackedMove.getCurrentCoordinate(move)) * BoardUtils.NUM_TILES +
+                PackedMove.getDestinationCoordinate(move);
+
+    }
+
+    /**
+     * A method to score a quiet move of the side to move, given the contexts of the moves one and two plies before it
+     */
+    public int getScore(final SearchBoard board, final int move, final int previousContext,
+                        final int secondPreviousContext) {
+
+        final int context = context(board, move);
+        int score = this.butterflyHistory[butterflyIndex(board.getSideToMove(), move)];
+
+        if (previousContext != NO_CONTEXT) {
+            score += this.counterMoveHistory[previousContext * NUM_CONTEXTS + context];
+        }
+
+        if (secondPreviousContext != NO_CONTEXT) {
+            score += this.followUpHistory[secondPreviousContext * NUM_CONTEXTS + context];
+        }
+
+        return score;
+
+    }
+
+    /**
+     * A method to get the quiet move that last refuted the move with the given context, or NO_MOVE
+     */
+    public int getCounterMove(final int previousContext) {
+
+        return previousContext == NO_CONTEXT ? PackedMove.NO_MOVE : this.counterMoves[previousContext];
+
+    }
+
+    /**
+     * A method to reward the quiet move that caused a beta cutoff and punish the quiet moves searched before it. The
+     * deeper the cutoff the larger the change, a cutoff close to the leaves says little about the move
+     */
+    public void updateQuiets(final SearchBoard board, final int bestMove, final int[] quietsSearched,
+                             final int quietCount, final int depth, final int previousContext,
+                             final int secondPreviousContext) {
+
+        final int bonus = Math.min(depth * depth, MAX_BONUS);
+
+        for (int i = 0; i < quietCount; i++) {
+            final int move = quietsSearched[i];
+            update(board, move, move == bestMove ? bonus : -bonus, previousContext, secondPreviousContext);
+        }
+
+        if (previousContext != NO_CONTEXT) {
+            this.counterMoves[previousContext] = bestMove;
+        }
+
+    }
+
+    public void clear() {
+
+        Arrays.fill(this.butterflyHistory, 0);
+        Arrays.fill(this.counterMoves, PackedMove.NO_MOVE);
+        Arrays.fill(this.counterMoveHistory, (short) 0);
+        Arrays.fill(this.followUpHistory, (short) 0);
+
+    }
+
+    private void update(final SearchBoard board, final int move, final int bonus, final int previousContext,
+                        final int secondPreviousContext) {
+
+        final int context = context(board, move);
+        updateEntry(this.butterflyHistory, butterflyIndex(board.getSideToMove(), move), bonus);
+
+        if (previousContext != NO_CONTEXT) {
+            updateEntry(this.counterMoveHistory, previousContext * NUM_CONTEXTS + context, bonus);
+        }
+
+        if (secondPreviousContext != NO_CONTEXT) {
+            updateEntry(this.followUpHistory, secondPreviousContext * NUM_CONTEXTS + context, bonus);
+        }
+
+    }
+
+    private static void updateEntry(final int[] table, final int index, final int bonus) {
+
+        table[index] += bonus - table[index] * Math.abs(bonus) / MAX_HISTORY;
+
+    }
+
+    private static void updateEntry(final short[] table, final int index, final int bonus) {
+
+        table[index] += bonus - table[index] * Math.abs(bonus) / MAX_HISTORY;
+
+    }
+
+    private static int butterflyIndex(final int side, final int move) {
+
+        return side * (MOVE_TILES_MASK + 1) + (move & MOVE_TILES_MASK);
+
+    }
+
+}
@@ -0,0 +1,40 @@
+package com.chess.engine.search;
+
+import com.chess.engine.pieces.Piece;
+
+/**
+ * The capture ordering of the move picker: most valuable victim first and, for the same victim, least valuable
+ * attacker first, so a pawn taking a queen comes before a queen taking a pawn. A promotion to a queen counts like
+ * capturing one and the other promotions come after every capture
+ */
+public class MoveOrdering {
+
+    private static final int QUEEN = Piece.PieceType.QUEEN.ordinal();
+    //A victim of a higher type always outweighs a cheaper attacker
+    private static final int VICTIM_SCALE = 8;
+    private static final int UNDERPROMOTION_SCORE = -VICTIM_SCALE;
+
+    //MoveOrdering constructor with a runtimeException to prevent a user from instantiating this class
+    private MoveOrdering() {
+        throw new RuntimeException("You cannot instantiate me!");
+    }
+
+    /**
+     * A method to score a capture by the PieceType ordinals of the captured and the capturing piece
+     */
+    public static int captureScore(final int victimType, final int attackerType) {
+
+        return (victimType + 1) * VICTIM_SCALE - attackerType;
+
+    }
+
+    /**
+     * A method to get the score added for a promotion to the piece with the given PieceType ordinal
+     */
+    public static int promotionScore(final int promotionType) {
+
+        return promotionType == QUEEN ? QUEEN * VICTIM_SCALE : UNDERPROMOTION_SCORE;
+
+    }
+
+}
@@ -0,0 +1,253 @@
+package com.chess.engine.search;
+
+import com.chess.engine.board.MoveGenerator;
+import com.chess.engine.board.MoveList;
+import com.chess.engine.board.PackedMove;
+import com.chess.engine.board.SearchBoard;
+import com.chess.engine.pieces.Piece;
+
+/**
+ * Hands out the legal moves of a search board one at a time in the order a search wants to try them: the move from
+ * the transposition table, the captures and promotions with the most valuable victim and least valuable attacker
+ * first, the killer moves, the counter move to the opponent's last move, and then the remaining quiet moves with the
+ * best history score first. Every stage is only generated once the moves of the stages before it have been tried, so a
+ * node that cuts off on the table move or a capture never generates its quiet moves. A quiescence search only gets the
+ * captures and promotions. One picker is kept per ply and reused for every node searched at that ply
+ */
+public final class MovePicker {
+
+    private static final int TABLE_MOVE = 0;
+    private static final int GENERATE_CAPTURES = 1;
+    private static final int CAPTURES = 2;
+    private static final int FIRST_KILLER = 3;
+    private static final int SECOND_KILLER = 4;
+    private static final int COUNTER_MOVE = 5;
+    private static final int GENERATE_QUIETS = 6;
+    private static final int QUIETS = 7;
+    private static final int DONE = 8;
+
+    private static final int PAWN = Piece.PieceType.PAWN.ordinal();
+
+    private final MoveHistory history;
+    private final MoveList moves = new MoveList();
+    private final int[] scores = new int[MoveList.MAX_MOVES];
+
+    private SearchBoard board;
+    private int tableMove;
+    private int firstKiller;
+    private int secondKiller;
+    private int counterMove;
+    private int previousContext;
+    private int secondPreviousContext;
+    private boolean capturesOnly;
+    private int stage;
+    private int index;
+
+    /**
+     * Create a picker that orders the quiet moves by the given history, shared by every picker of one search thread
+     */
+    public MovePicker(final MoveHistory history) {
+
+        this.history = history;
+
+    }
+
+    /**
+     * A method to start picking the moves of the board's current position. Table and killer moves may come from other
+     * positions, each is only handed out when it is legal here. The contexts of the two moves before this position,
+     * or MoveHistory.NO_CONTEXT, pick the counter move and the continuation histories
+     */
+    public void init(final SearchBoard board, final int tableMove, final int firstKiller, final int secondKiller,
+                     final int previousContext, final int secondPreviousContext) {
+
+        this.board = board;
+        this.tableMove = MoveGenerator.isLegal(board, tableMove) ? tableMove : PackedMove.NO_MOVE;
+        this.firstKiller = firstKiller;
+        this.secondKiller = secondKiller;
+        this.counterMove = this.history.getCounterMove(previousContext);
+        this.previousContext = previousContext;
+        this.secondPreviousContext = secondPreviousContext;
+        this.capturesOnly = false;
+        this.stage = this.tableMove != PackedMove.NO_MOVE ? TABLE_MOVE : GENERATE_CAPTURES;
+
+    }
+
+    /**
+     * A method to start picking only the captures and promotions of the board's current position, for a quiescence
+     * search
+     */
+    public void initQuiescence(final SearchBoard board) {
+
+        this.board = board;
+        this.tableMove = PackedMove.NO_MOVE;
+        this.capturesOnly = true;
+        this.stage = GENERATE_CAPTURES;
+
+    }
+
+    /**
+     * A method to get the next move to try, or PackedMove.NO_MOVE once every legal move was handed out
+     */
+    public int next() {
+
+        while (true) {
+
+            switch (this.stage) {
+
+                case TABLE_MOVE:
+                    this.stage = GENERATE_CAPTURES;
+                    return this.tableMove;
+
+                case GENERATE_CAPTURES:
+                    this.moves.clear();
+                    MoveGenerator.generateLegalCaptures(this.board, this.moves);
+                    scoreCaptures();
+                    this.index = 0;
+                    this.stage = CAPTURES;
+                    break;
+
+                case CAPTURES:
+                    if (this.index < this.moves.size()) {
+                        final int move = pickBest();
+                        if (move != this.tableMove) {
+                            return move;
+                        }
+                        break;
+                    }
+                    this.stage = this.capturesOnly ? DONE : FIRST_KILLER;
+                    break;
+
+                case FIRST_KILLER:
+                    this.stage = SECOND_KILLER;
+                    if (isPlayableKiller(this.firstKiller)) {
+                        return this.firstKiller;
+                    }
+                    break;
+
+                case SECOND_KILLER:
+                    this.stage = COUNTER_MOVE;
+                    if (this.secondKiller != this.firstKiller && isPlayableKiller(this.secondKiller)) {
+                        return this.secondKiller;
+                    }
+                    break;
+
+                case COUNTER_MOVE:
+                    this.stage = GENERATE_QUIETS;
+                    if (this.counterMove != this.firstKiller && this.counterMove != this.secondKiller &&
+                            isPlayableKiller(this.counterMove)) {
+                        return this.counterMove;
+                    }
+                    break;
+
+                case GENERATE_QUIETS:
+                    this.moves.clear();
+                    MoveGenerator.generateLegalQuiets(this.board, this.moves);
+                    scoreQuiets();
+                    this.index = 0;
+                    this.stage = QUIETS;
+                    break;
+
+                case QUIETS:
+                    if (this.index < this.moves.size()) {
+                        final int move = pickBest();
+                        if (move != this.tableMove && move != this.firstKiller && move != this.secondKiller &&
+                                move != this.counterMove) {
+                            return move;
+                        }
+                        break;
+                    }
+                    this.stage = DONE;
+                    break;
+
+                default:
+                    return PackedMove.NO_MOVE;
+
+            }
+
+        }
+
+    }
+
+    /**
+     * A method to check whether a killer or counter move can be handed out in its own stage. Both are quiet moves, one
+     * that is the table move was already handed out and one that is not legal here is skipped
+     */
+    private boolean isPlayableKiller(final int killer) {
+
+        return killer != PackedMove.NO_MOVE && killer != this.tableMove && !PackedMove.isAttack(killer) &&
+                !PackedMove.isPromotion(killer) && MoveGenerator.isLegal(this.board, killer);
+
+    }
+
+    /**
+     * A method to score the captures and promotions by the value of the piece captured, and for equal victims by the
+     * piece capturing it, so a pawn taking a queen comes before a queen taking a pawn
+     */
+    private void scoreCaptures() {
+
+        for (int i = 0; i < this.moves.size(); i++) {
+
+            final int move = this.moves.get(i);
+            final int from = PackedMove.getCurrentCoordinate(move);
+            final int to = PackedMove.getDestinationCoordinate(move);
+            final int attacker = this.board.getPieceOnTile(from) % Piece.PieceType.values().length;
+            int score = 0;
+
+            if (PackedMove.isAttack(move)) {
+                //An en passant capture lands on an empty tile but always takes a pawn
+                final int victim = PackedMove.getFlags(move) == PackedMove.EN_PASSANT ? PAWN :
+                        this.board.getPieceOnTile(to) % Piece.PieceType.values().length;
+                score = MoveOrdering.captureScore(victim, attacker);
+            }
+
+            if (PackedMove.isPromotion(move)) {
+                score += MoveOrdering.promotionScore(PackedMove.getPromotionType(move));
+            }
+
+            this.scores[i] = score;
+
+        }
+
+    }
+
+    /**
+     * A method to score the quiet moves by what the history learned about them in earlier positions
+     */
+    private void scoreQuiets() {
+
+        for (int i = 0; i < this.moves.size(); i++) {
+
+            this.scores[i] = this.history.getScore(this.board, this.moves.get(i), this.previousContext,
+                    this.secondPreviousContext);
+
+        }
+
+    }
+
+    /**
+     * A method to move the best scored remaining move to the current index and hand it out. Only the moves that are
+     * actually tried get sorted, which after a cutoff is usually only the first one
+     */
+    private int pickBest() {
+
+        int best = this.index;
+
+        for (int i = this.index + 1; i < this.moves.size(); i++) {
+            if (this.scores[i] > this.scores[best]) {
+                best = i;
+            }
+        }
+
+        final int move = this.moves.get(best);
+        final int score = this.scores[best];
+        this.moves.set(best, this.moves.get(this.index));
+        this.scores[best] = this.scores[this.index];
+        this.moves.set(this.index, move);
+        this.scores[this.index] = score;
+        this.index++;
+
+        return move;
+
+    }
+
+}
@@ -0,0 +1,466 @@
+package com.chess.engine.search;
+
+import com.chess.engine.board.Board;
+import com.chess.engine.board.FenUtilities;
+import com.chess.engine.board.Move;
+import com.chess.engine.board.PackedMove;
+import com.chess.engine.board.SearchBoard;
+import com.chess.engine.perft.Perft;
+import com.chess.engine.player.MoveTransition;
+import com.chess.engine.player.Player;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+/**
+ * Chooses a move for the current player of a board with an iterative deepening principal variation search. Every
+ * iteration searches one ply deeper than the last with alpha-beta, the first move of a node with a full window and the
+ * others with a null window that is only widened when a move turns out better than the best so far. The moves found by
+ * the previous iteration are tried first through the transposition table, and from the fifth ply on an iteration
+ * starts with a narrow aspiration window around the previous score that is widened when the score falls outside it.
+ * Late quiet moves are searched with reduced depth, and outside the principal variation the search also passes with
+ * null moves and prunes by futility and razoring, all as set by its SearchParameters. Every line ends in a quiescence
+ * search of the captures.
+ *
+ * The root moves are taken from the current player and checked with makeMove, so the best move handed back is one of
+ * the player's own legal moves; below the root the search runs on a SearchBoard with packed moves. A search engine
+ * runs one search at a time, its table keeps what it learned for the next search of the same game.
+ *
+ * With more than one thread the search is a lazy SMP search: helper threads search the same root at the same time,
+ * each on its own board with its own killer moves, and share nothing but the lock-free transposition table. The
+ * results the helpers store cut off whole subtrees for the main thread, which alone decides the move and reports
+ */
+public final class SearchEngine {
+
+    public static final int MAX_PLY = 128;
+    public static final int MATE_SCORE = 32000;
+    public static final int DRAW_SCORE = 0;
+
+    static final int INFINITE_SCORE = MATE_SCORE + 1;
+    //Any score beyond this is a mate found within the search, the distance to mate is the difference to MATE_SCORE
+    static final int MATE_BOUND = MATE_SCORE - MAX_PLY;
+
+    private final TranspositionTable table;
+    //Worker 0 searches on the thread that called search, every other worker on a helper thread of its own
+    private final SearchWorker[] workers;
+    //The first exception a helper thread died with during the current search, handed on by the main thread
+    private final AtomicReference<Throwable> helperFailure = new AtomicReference<>();
+
+    private long maxNodes;
+    private long deadline;
+    private volatile boolean stopped;
+
+    /**
+     * Create a single threaded search engine with a transposition table of the given size
+     */
+    public SearchEngine(final int hashSizeInMegabytes) {
+
+        this(hashSizeInMegabytes, 1);
+
+    }
+
+    /**
+     * Create a search engine with a transposition table of the given size that searches with the given number of
+     * threads, usually the number of cores of the machine. Besides the shared table every thread has its own move
+     * history of about 2.4 MB, so 16 threads take close to 40 MB more than one
+     */
+    public SearchEngine(final int hashSizeInMegabytes, final int threadCount) {
+
+        this(hashSizeInMegabytes, threadCount, SearchParameters.DEFAULT);
+
+    }
+
+    /**
+     * Create a search engine like the one above that prunes and reduces its search by the given parameters
+     */
+    public SearchEngine(final int hashSizeInMegabytes, final int threadCount, final SearchParameters parameters) {
+
+        if (threadCount <= 0) {
+            throw new IllegalArgumentException("Search thread count must be positive: " + threadCount);
+        }
+
+        this.table = new TranspositionTable(hashSizeInMegabytes);
+        this.workers = new SearchWorker[threadCount];
+
+        for (int id = 0; id < threadCount; id++) {
+            this.workers[id] = new SearchWorker(this, this.table, parameters, id);
+        }
+
+    }
+
+    /**
+     * A method to find the best move for the current player of a board within the given limits
+     */
+    public SearchResult search(final Board board, final SearchLimits limits) {
+
+        return search(board, limits, result -> {
+        });
+
+    }
+
+    /**
+     * A method to find the best move for the current player of a board within the given limits, handing the result of
+     * every finished iteration to the listener as soon as it is known
+     */
+    public SearchResult search(final Board board, final SearchLimits limits, final Consumer<SearchResult> listener) {
+
+        final Map<Integer, Move> legalRootMoves = collectRootMoves(board.currentPlayer());
+
+        if (legalRootMoves.isEmpty()) {
+            throw new IllegalArgumentException("The current player has no legal move to search");
+        }
+
+        final long startTime = System.nanoTime();
+        this.deadline = limits.hasTimeLimit() ? startTime + limits.getTimeMillis() * 1_000_000 : Long.MAX_VALUE;
+        this.maxNodes = limits.getMaxNodes();
+        this.stopped = false;
+        this.helperFailure.set(null);
+        this.table.newSearch();
+
+        final int[] orderedRootMoves = orderRootMoves(board, legalRootMoves);
+
+        for (final SearchWorker worker : this.workers) {
+            worker.prepare(board, orderedRootMoves);
+        }
+
+        final Thread[] helpers = startHelpers(limits.getMaxDepth());
+        final SearchWorker mainWorker = this.workers[0];
+        SearchResult result = new SearchResult(legalRootMoves.get(orderedRootMoves[0]),
+                Evaluation.evaluate(new SearchBoard(board)), 0, new int[]{orderedRootMoves[0]}, 0, 0);
+        int score = 0;
+
+        try {
+
+            for (int depth = 1; depth <= limits.getMaxDepth(); depth++) {
+
+                score = mainWorker.aspirationSearch(depth, score);
+
+                //An interrupted iteration is only used when it already found a move, which then beat the previous best
+                if (this.stopped && mainWorker.getIterationBestMove() == PackedMove.NO_MOVE) {
+                    break;
+                }
+
+                result = new SearchResult(legalRootMoves.get(mainWorker.getBestMove()),
+                        this.stopped ? mainWorker.getIterationBestScore() : score, depth,
+                        mainWorker.getPrincipalVariation(), getNodes(), System.nanoTime() - startTime);
+                listener.accept(result);
+
+                //With a time limit a forced move is played at once, the time is worth more on later moves
+                if (this.stopped || !hasTimeForNextIteration(limits, startTime) ||
+                        mainWorker.getRootMoveCount() == 1 && limits.hasTimeLimit()) {
+                    break;
+                }
+
+                //Going deeper cannot find a faster mate than one already found within this depth
+                if (isMateScore(score) && MATE_SCORE - Math.abs(score) <= depth) {
+                    break;
+                }
+
+            }
+
+        } finally {
+
+            this.stopped = true;
+            joinHelpers(helpers);
+
+        }
+
+        //The result would claim the work of every thread while some of them stopped early, so it is not handed back
+        final Throwable failure = this.helperFailure.get();
+
+        if (failure != null) {
+            throw new IllegalStateException("A search helper thread failed", failure);
+        }
+
+        return result;
+
+    }
+
+    /**
+     * A method to stop a search running on another thread, it returns the best move found so far
+     */
+    public void stop() {
+
+        this.stopped = true;
+
+    }
+
+    /**
+     * A method to forget everything learned in earlier searches, for a new game
+     */
+    public void clear() {
+
+        this.table.clear();
+
+        for (final SearchWorker worker : this.workers) {
+            worker.getHistory().clear();
+        }
+
+    }
+
+    public int getThreadCount() {
+
+        return this.workers.length;
+
+    }
+
+    /**
+     * A method to check whether a score means a forced mate for one side
+     */
+    public static boolean isMateScore(final int score) {
+
+        return Math.abs(score) >= MATE_BOUND;
+
+    }
+
+    boolean isStopped() {
+
+        return this.stopped;
+
+    }
+
+    /**
+     * A method called by the main worker every few thousand nodes to stop the search once it ran out of time or nodes
+     */
+    void checkLimits() {
+
+        if (System.nanoTime() >= this.deadline || getNodes() >= this.maxNodes) {
+            this.stopped = true;
+        }
+
+    }
+
+    /**
+     * A method to get the nodes searched by all threads together
+     */
+    private long getNodes() {
+
+        long nodes = 0;
+
+        for (final SearchWorker worker : this.workers) {
+            nodes += worker.getNodes();
+        }
+
+        return nodes;
+
+    }
+
+    private Thread[] startHelpers(final int maxDepth) {
+
+        final Thread[] helpers = new Thread[this.workers.length - 1];
+
+        for (int i = 0; i < helpers.length; i++) {
+
+            final SearchWorker helper = this.workers[i + 1];
+            helpers[i] = new Thread(() -> runHelper(helper, maxDepth), "search-helper-" + (i + 1));
+            helpers[i].setDaemon(true);
+            helpers[i].start();
+
+        }
+
+        return helpers;
+
+    }
+
+    /**
+     * A method to run a helper's search on its thread. A helper that fails stops the whole search, and the main thread
+     * throws its exception once every helper has finished
+     */
+    private void runHelper(final SearchWorker helper, final int maxDepth) {
+
+        try {
+            helper.searchAsHelper(maxDepth);
+        } catch (final RuntimeException | Error e) {
+            this.helperFailure.compareAndSet(null, e);
+            this.stopped = true;
+        }
+
+    }
+
+    /**
+     * A method to wait for the helper threads to notice the search was stopped, so no helper is still using its
+     * worker when the next search prepares it
+     */
+    private static void joinHelpers(final Thread[] helpers) {
+
+        boolean interrupted = false;
+
+        for (final Thread helper : helpers) {
+
+            while (helper.isAlive()) {
+
+                try {
+                    helper.join();
+                } catch (final InterruptedException e) {
+                    interrupted = true;
+                }
+
+            }
+
+        }
+
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+
+    }
+
+    /**
+     * A method to collect the root moves the current player can actually make, keyed by their packed form
+     */
+    private static Map<Integer, Move> collectRootMoves(final Player currentPlayer) {
+
+        final Map<Integer, Move> rootMoves = new HashMap<>();
+
+        for (final Move move : currentPlayer.getLegalMoves()) {
+
+            final MoveTransition transition = currentPlayer.makeMove(move);
+
+            if (transition.getMoveStatus().isDone()) {
+                rootMoves.put(PackedMove.fromMove(move), move);
+            }
+
+        }
+
+        return rootMoves;
+
+    }
+
+    /**
+     * A method to put the root moves in the order the move picker hands them out, table move first and the quiet
+     * moves by what the main worker's history learned in earlier searches
+     */
+    private int[] orderRootMoves(final Board board, final Map<Integer, Move> legalRootMoves) {
+
+        final SearchBoard searchBoard = new SearchBoard(board);
+        final int[] orderedMoves = new int[legalRootMoves.size()];
+        final long entry = this.table.probe(board.getZobristKey());
+        final MovePicker picker = new MovePicker(this.workers[0].getHistory());
+        int count = 0;
+
+        picker.init(searchBoard, entry != 0 ? TranspositionTable.move(entry) : PackedMove.NO_MOVE,
+                PackedMove.NO_MOVE, PackedMove.NO_MOVE, MoveHistory.NO_CONTEXT, MoveHistory.NO_CONTEXT);
+
+        for (int move = picker.next(); move != PackedMove.NO_MOVE; move = picker.next()) {
+
+            if (legalRootMoves.containsKey(move)) {
+                orderedMoves[count++] = move;
+            }
+
+        }
+
+        if (count != orderedMoves.length) {
+            throw new IllegalStateException("The search board and the player disagree on the legal moves");
+        }
+
+        return orderedMoves;
+
+    }
+
+    /**
+     * A method to decide whether another iteration is worth starting. Each iteration takes a few times as long as the
+     * one before it, so one started after half the time is gone would most likely be cut off without a result
+     */
+    private boolean hasTimeForNextIteration(final SearchLimits limits, final long startTime) {
+
+        if (getNodes() >= this.maxNodes) {
+            return false;
+        }
+
+        return !limits.hasTimeLimit() || System.nanoTime() - startTime < limits.getTimeMillis() * 1_000_000 / 2;
+
+    }
+
+    /**
+     * Searches a position and prints every iteration with its depth, score, nodes per second and principal variation.
+     * Pass "--time MS", "--depth N" or "--nodes N" to limit the search (5 seconds by default), "--hash MB" for the
+     * table size, "--threads N" for the number of search threads, each of which adds a move history of about 2.4 MB,
+     * and a FEN string for the position, otherwise the standard starting position is searched. "--bench DEPTH" instead
+     * searches every perft reference position to a fixed depth with a fresh engine and prints the nodes and time it
+     * took, which compares move ordering and pruning changes and, together with "--threads N", how the time to reach
+     * the depth scales with threads. "--no-pruning" searches without null moves, reductions, futility pruning and
+     * razoring
+     */
+    public static void main(final String[] args) {
+
+        int maxDepth = SearchLimits.NO_DEPTH_LIMIT;
+        long timeMillis = SearchLimits.NO_TIME_LIMIT;
+        long maxNodes = SearchLimits.NO_NODE_LIMIT;
+        int hashSizeInMegabytes = 64;
+        int threadCount = 1;
+        int benchDepth = 0;
+        SearchParameters parameters = SearchParameters.DEFAULT;
+        final StringBuilder fen = new StringBuilder();
+
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--time":
+                    timeMillis = Long.parseLong(args[++i]);
+                    break;
+                case "--depth":
+                    maxDepth = Integer.parseInt(args[++i]);
+                    break;
+                case "--nodes":
+                    maxNodes = Long.parseLong(args[++i]);
+                    break;
+                case "--hash":
+                    hashSizeInMegabytes = Integer.parseInt(args[++i]);
+                    break;
+                case "--threads":
+                    threadCount = Integer.parseInt(args[++i]);
+                    break;
+                case "--bench":
+                    benchDepth = Integer.parseInt(args[++i]);
+                    break;
+                case "--no-pruning":
+                    parameters = SearchParameters.NO_PRUNING;
+                    break;
+                default:
+                    fen.append(args[i]).append(' ');
+            }
+        }
+
+        if (benchDepth > 0) {
+            bench(benchDepth, threadCount, parameters);
+            return;
+        }
+
+        if (maxDepth == SearchLimits.NO_DEPTH_LIMIT && timeMillis == SearchLimits.NO_TIME_LIMIT &&
+                maxNodes == SearchLimits.NO_NODE_LIMIT) {
+            timeMillis = 5000;
+        }
+
+        final Board board = fen.length() == 0 ? Board.createStandardBoard() :
+                FenUtilities.createGameFromFEN(fen.toString());
+        final SearchResult result = new SearchEngine(hashSizeInMegabytes, threadCount, parameters)
+                .search(board, new SearchLimits(maxDepth, timeMillis, maxNodes), System.out::println);
+
+        System.out.println("Best move: " + PackedMove.toString(PackedMove.fromMove(result.getBestMove())));
+
+    }
+
+    private static void bench(final int depth, final int threadCount, final SearchParameters parameters) {
+
+        long totalNodes = 0;
+        long totalMillis = 0;
+
+        for (final Perft.ReferencePosition position : Perft.REFERENCE_POSITIONS) {
+
+            final SearchResult result = new SearchEngine(16, threadCount, parameters)
+                    .search(FenUtilities.createGameFromFEN(position.getFen()), SearchLimits.depth(depth));
+            System.out.printf("%-16s %,12d nodes %,8d ms %,12d nodes/sec  %s%n", position.getName(),
+                    result.getNodes(), result.getElapsedMillis(), result.getNodesPerSecond(),
+                    PackedMove.toString(PackedMove.fromMove(result.getBestMove())));
+            totalNodes += result.getNodes();
+            totalMillis += result.getElapsedMillis();
+
+        }
+
+        System.out.printf("Total %,d nodes in %,d ms (%,d nodes/sec), threads %d%n", totalNodes, totalMillis,
+                totalNodes * 1000 / Math.max(1, totalMillis), threadCount);
+
+    }
+
+}
@@ -0,0 +1,81 @@
+package com.chess.engine.search;
+
+/**
+ * The budget of one search: how deep it may go, how long it may take and how many nodes it may visit. The search stops
+ * at whichever limit it reaches first and plays the best move of the deepest iteration it got through
+ */
+public final class SearchLimits {
+
+    public static final int NO_DEPTH_LIMIT = SearchEngine.MAX_PLY - 1;
+    public static final long NO_TIME_LIMIT = Long.MAX_VALUE;
+    public static final long NO_NODE_LIMIT = Long.MAX_VALUE;
+
+    private final int maxDepth;
+    private final long timeMillis;
+    private final long maxNodes;
+
+    public SearchLimits(final int maxDepth, final long timeMillis, final long maxNodes) {
+
+        if (maxDepth <= 0 || timeMillis <= 0 || maxNodes <= 0) {
+            throw new IllegalArgumentException("Search limits must be positive: depth " + maxDepth + ", time " +
+                    timeMillis + " ms, nodes " + maxNodes);
+        }
+
+        this.maxDepth = Math.min(maxDepth, NO_DEPTH_LIMIT);
+        this.timeMillis = timeMillis;
+        this.maxNodes = maxNodes;
+
+    }
+
+    /**
+     * A method to create limits that only bound the depth, for analysis that must give the same result every time
+     */
+    public static SearchLimits depth(final int maxDepth) {
+
+        return new SearchLimits(maxDepth, NO_TIME_LIMIT, NO_NODE_LIMIT);
+
+    }
+
+    /**
+     * A method to create limits that only bound the time spent on a move, for automated play
+     */
+    public static SearchLimits time(final long timeMillis) {
+
+        return new SearchLimits(NO_DEPTH_LIMIT, timeMillis, NO_NODE_LIMIT);
+
+    }
+
+    /**
+     * A method to create limits that only bound the number of nodes, which costs the same on every machine
+     */
+    public static SearchLimits nodes(final long maxNodes) {
+
+        return new SearchLimits(NO_DEPTH_LIMIT, NO_TIME_LIMIT, maxNodes);
+
+    }
+
+    public int getMaxDepth() {
+
+        return this.maxDepth;
+
+    }
+
+    public long getTimeMillis() {
+
+        return this.timeMillis;
+
+    }
+
+    public long getMaxNodes() {
+
+        return this.maxNodes;
+
+    }
+
+    public boolean hasTimeLimit() {
+
+        return this.timeMillis != NO_TIME_LIMIT;
+
+    }
+
+}
@@ -0,0 +1,281 @@
+package com.chess.engine.search;
+
+/**
+ * The settings of the selective parts of the search, the ones that search some moves less deeply than others or not
+ * at all. Each technique can be switched off on its own, which is how a change to one of them is measured against the
+ * rest, and its depths and margins can be tuned:
+ * - null move pruning passes the move and searches the position reduced by nullMoveReduction plus one ply for every
+ *   nullMoveDepthDivisor plies of depth; when the opponent cannot even punish passing the node is cut off. At
+ *   nullMoveVerificationDepth and above, and always for a side with no more than a minor piece besides its pawns, the
+ *   cutoff has to be confirmed by a search of the node itself without a pass, since zugzwang makes passing the best
+ *   move there
+ * - late move reductions search a quiet move that comes late in the move order with less depth, the further down the
+ *   order and the deeper the node the more so, and search it again at full depth when it turns out better than alpha
+ * - futility pruning skips the quiet moves of a node within futilityMaxDepth plies of the horizon when the static
+ *   evaluation plus futilityMargin per ply cannot reach alpha
+ * - razoring drops a node within razoringMaxDepth plies of the horizon into the quiescence search when the static
+ *   evaluation plus razoringMargin per ply is below alpha, and trusts it when the quiescence search agrees
+ */
+public final class SearchParameters {
+
+    public static final SearchParameters DEFAULT = new Builder().build();
+    public static final SearchParameters NO_PRUNING = new Builder()
+            .setNullMovePruning(false)
+            .setLateMoveReductions(false)
+            .setFutilityPruning(false)
+            .setRazoring(false)
+            .build();
+
+    //The reduction table only grows up to this depth and move number, later ones reuse its last entries
+    private static final int REDUCTION_TABLE_SIZE = 64;
+
+    private final boolean nullMovePruning;
+    private final int nullMoveMinDepth;
+    private final int nullMoveReduction;
+    private final int nullMoveDepthDivisor;
+    private final int nullMoveVerificationDepth;
+
+    private final boolean lateMoveReductions;
+    private final int lateMoveMinDepth;
+    private final int lateMoveFullDepthMoves;
+    private final int[][] lateMoveReductionTable;
+
+    private final boolean futilityPruning;
+    private final int futilityMaxDepth;
+    private final int futilityMargin;
+
+    private final boolean razoring;
+    private final int razoringMaxDepth;
+    private final int razoringMargin;
+
+    private SearchParameters(final Builder builder) {
+
+        this.nullMovePruning = builder.nullMovePruning;
+        this.nullMoveMinDepth = builder.nullMoveMinDepth;
+        this.nullMoveReduction = builder.nullMoveReduction;
+        this.nullMoveDepthDivisor = builder.nullMoveDepthDivisor;
+        this.nullMoveVerificationDepth = builder.nullMoveVerificationDepth;
+        this.lateMoveReductions = builder.lateMoveReductions;
+        this.lateMoveMinDepth = builder.lateMoveMinDepth;
+        this.lateMoveFullDepthMoves = builder.lateMoveFullDepthMoves;
+        this.lateMoveReductionTable = createReductionTable(builder.lateMoveReductionBase,
+                builder.lateMoveReductionDivisor);
+        this.futilityPruning = builder.futilityPruning;
+        this.futilityMaxDepth = builder.futilityMaxDepth;
+        this.futilityMargin = builder.futilityMargin;
+        this.razoring = builder.razoring;
+        this.razoringMaxDepth = builder.razoringMaxDepth;
+        this.razoringMargin = builder.razoringMargin;
+
+    }
+
+    /**
+     * A method to check whether a node may try passing its move, which needs enough depth left to search the pass
+     */
+    boolean canTryNullMove(final int depth) {
+
+        return this.nullMovePruning && depth >= this.nullMoveMinDepth;
+
+    }
+
+    /**
+     * A method to get how many plies less than the node itself the position after passing is searched with
+     */
+    int getNullMoveReduction(final int depth) {
+
+        return this.nullMoveReduction + depth / this.nullMoveDepthDivisor;
+
+    }
+
+    int getNullMoveVerificationDepth() {
+
+        return this.nullMoveVerificationDepth;
+
+    }
+
+    /**
+     * A method to get the reduction of a quiet move by the depth of its node and the number of moves searched before
+     * it, 0 for the first moves of a node and for nodes too close to the horizon to reduce
+     */
+    int getLateMoveReduction(final int depth, final int movesSearched) {
+
+        if (!this.lateMoveReductions || depth < this.lateMoveMinDepth || movesSearched < this.lateMoveFullDepthMoves) {
+            return 0;
+        }
+
+        return this.lateMoveReductionTable[Math.min(depth, REDUCTION_TABLE_SIZE - 1)]
+                [Math.min(movesSearched, REDUCTION_TABLE_SIZE - 1)];
+
+    }
+
+    /**
+     * A method to get the margin the static evaluation needs above alpha for the quiet moves of a node to be searched,
+     * or a negative margin when futility pruning does not apply at this depth
+     */
+    int getFutilityMargin(final int depth) {
+
+        return this.futilityPruning && depth <= this.futilityMaxDepth ? this.futilityMargin * depth : -1;
+
+    }
+
+    /**
+     * A method to get the margin by which the static evaluation has to miss alpha for a node to be razored, or a
+     * negative margin when razoring does not apply at this depth
+     */
+    int getRazoringMargin(final int depth) {
+
+        return this.razoring && depth <= this.razoringMaxDepth ? this.razoringMargin * depth : -1;
+
+    }
+
+    public boolean isNullMovePruning() {
+
+        return this.nullMovePruning;
+
+    }
+
+    public boolean isLateMoveReductions() {
+
+        return this.lateMoveReductions;
+
+    }
+
+    public boolean isFutilityPruning() {
+
+        return this.futilityPruning;
+
+    }
+
+    public boolean isRazoring() {
+
+        return this.razoring;
+
+    }
+
+    /**
+     * A method to fill the reduction table, which grows with the logarithm of both the depth and the move number so a
+     * move twice as late is only reduced a little more
+     */
+    private static int[][] createReductionTable(final double base, final double divisor) {
+
+        final int[][] reductions = new int[REDUCTION_TABLE_SIZE][REDUCTION_TABLE_SIZE];
+
+        for (int depth = 1; depth < REDUCTION_TABLE_SIZE; depth++) {
+            for (int moveNumber = 1; moveNumber < REDUCTION_TABLE_SIZE; moveNumber++) {
+                reductions[depth][moveNumber] = (int) (base + Math.log(depth) * Math.log(moveNumber) / divisor);
+            }
+        }
+
+        return reductions;
+
+    }
+
+    /**
+     * Builds search parameters, starting from the defaults so only the settings that differ have to be given
+     */
+    public static class Builder {
+
+        boolean nullMovePruning = true;
+        int nullMoveMinDepth = 3;
+        int nullMoveReduction = 3;
+        int nullMoveDepthDivisor = 6;
+        int nullMoveVerificationDepth = 10;
+
+        boolean lateMoveReductions = true;
+        int lateMoveMinDepth = 3;
+        int lateMoveFullDepthMoves = 3;
+        double lateMoveReductionBase = 0.75;
+        double lateMoveReductionDivisor = 2.25;
+
+        boolean futilityPruning = true;
+        int futilityMaxDepth = 3;
+        int futilityMargin = 125;
+
+        boolean razoring = true;
+        int razoringMaxDepth = 2;
+        int razoringMargin = 300;
+
+        public Builder setNullMovePruning(final boolean nullMovePruning) {
+            this.nullMovePruning = nullMovePruning;
+            return this;
+        }
+
+        public Builder setNullMoveMinDepth(final int nullMoveMinDepth) {
+            this.nullMoveMinDepth = nullMoveMinDepth;
+            return this;
+        }
+
+        public Builder setNullMoveReduction(final int nullMoveReduction, final int nullMoveDepthDivisor) {
+            this.nullMoveReduction = nullMoveReduction;
+            this.nullMoveDepthDivisor = nullMoveDepthDivisor;
+            return this;
+        }
+
+        public Builder setNullMoveVerificationDepth(final int nullMoveVerificationDepth) {
+            this.nullMoveVerificationDepth = nullMoveVerificationDepth;
+            return this;
+        }
+
+        public Builder setLateMoveReductions(final boolean lateMoveReductions) {
+            this.lateMoveReductions = lateMoveReductions;
+            return this;
+        }
+
+        public Builder setLateMoveMinDepth(final int lateMoveMinDepth) {
+            this.lateMoveMinDepth = lateMoveMinDepth;
+            return this;
+        }
+
+        public Builder setLateMoveFullDepthMoves(final int lateMoveFullDepthMoves) {
+            this.lateMoveFullDepthMoves = lateMoveFullDepthMoves;
+            return this;
+        }
+
+        /**
+         * A method to set the reduction formula, base + ln(depth) * ln(moveNumber) / divisor rounded down
+         */
+        public Builder setLateMoveReductionFormula(final double base, final double divisor) {
+            this.lateMoveReductionBase = base;
+            this.lateMoveReductionDivisor = divisor;
+            return this;
+        }
+
+        public Builder setFutilityPruning(final boolean futilityPruning) {
+            this.futilityPruning = futilityPruning;
+            return this;
+        }
+
+        public Builder setFutilityMargin(final int futilityMaxDepth, final int futilityMargin) {
+            this.futilityMaxDepth = futilityMaxDepth;
+            this.futilityMargin = futilityMargin;
+            return this;
+        }
+
+        public Builder setRazoring(final boolean razoring) {
+            this.razoring = razoring;
+            return this;
+        }
+
+        public Builder setRazoringMargin(final int razoringMaxDepth, final int razoringMargin) {
+            this.razoringMaxDepth = razoringMaxDepth;
+            this.razoringMargin = razoringMargin;
+            return this;
+        }
+
+        public SearchParameters build() {
+
+            if (this.nullMoveMinDepth <= 0 || this.nullMoveReduction < 0 || this.nullMoveDepthDivisor <= 0 ||
+                    this.lateMoveMinDepth <= 0 || this.lateMoveFullDepthMoves <= 0 ||
+                    this.lateMoveReductionDivisor <= 0 || this.futilityMaxDepth < 0 || this.futilityMargin < 0 ||
+                    this.razoringMaxDepth < 0 || this.razoringMargin < 0) {
+                throw new IllegalArgumentException("Invalid search parameters, depths and margins must not be " +
+                        "negative and divisors must be positive");
+            }
+
+            return new SearchParameters(this);
+
+        }
+
+    }
+
+}
@@ -0,0 +1,118 @@
+package com.chess.engine.search;
+
+import com.chess.engine.board.Move;
+import com.chess.engine.board.PackedMove;
+
+/**
+ * The outcome of one iteration of a search: the best move found so far with its score, the line the search expects
+ * to be played after it and how much work it took to get there
+ */
+public final class SearchResult {
+
+    private final Move bestMove;
+    private final int score;
+    private final int depth;
+    private final int[] principalVariation;
+    private final long nodes;
+    private final long elapsedNanos;
+
+    SearchResult(final Move bestMove, final int score, final int depth, final int[] principalVariation,
+                 final long nodes, final long elapsedNanos) {
+
+        this.bestMove = bestMove;
+        this.score = score;
+        this.depth = depth;
+        this.principalVariation = principalVariation;
+        this.nodes = nodes;
+        this.elapsedNanos = elapsedNanos;
+
+    }
+
+    /**
+     * A method to get the move to play, a legal move of the searched board's current player that can be passed to its
+     * makeMove
+     */
+    public Move getBestMove() {
+
+        return this.bestMove;
+
+    }
+
+    /**
+     * A method to get the score of the best move in centipawns from the point of view of the side to move
+     */
+    public int getScore() {
+
+        return this.score;
+
+    }
+
+    /**
+     * A method to get the number of moves to mate, positive when the side to move mates and negative when it gets
+     * mated, or 0 when the score is not a mate score
+     */
+    public int getMateIn() {
+
+        if (!SearchEngine.isMateScore(this.score)) {
+            return 0;
+        }
+
+        return this.score > 0 ? (SearchEngine.MATE_SCORE - this.score + 1) / 2 :
+                -(SearchEngine.MATE_SCORE + this.score) / 2;
+
+    }
+
+    public int getDepth() {
+
+        return this.depth;
+
+    }
+
+    /**
+     * A method to get the expected line of play starting with the best move, as packed moves
+     */
+    public int[] getPrincipalVariation() {
+
+        return this.principalVariation.clone();
+
+    }
+
+    public long getNodes() {
+
+        return this.nodes;
+
+    }
+
+    public long getElapsedMillis() {
+
+        return this.elapsedNanos / 1_000_000;
+
+    }
+
+    /**
+     * A method to get the search speed, worked out in floating point since the node count times the nanoseconds in a
+     * second no longer fits in a long once a search passes about 9 billion nodes
+     */
+    public long getNodesPerSecond() {
+
+        return (long) (this.nodes * 1e9 / Math.max(1, this.elapsedNanos));
+
+    }
+
+    @Override
+    public String toString() {
+
+        final StringBuilder builder = new StringBuilder();
+        builder.append(String.format("depth %d score %s nodes %,d time %,d ms (%,d nodes/sec) pv", this.depth,
+                getMateIn() != 0 ? "mate " + getMateIn() : this.score + " cp", this.nodes, getElapsedMillis(),
+                getNodesPerSecond()));
+
+        for (final int move : this.principalVariation) {
+            builder.append(' ').append(PackedMove.toString(move));
+        }
+
+        return builder.toString();
+
+    }
+
+}
@@ -0,0 +1,655 @@
+package com.chess.engine.search;
+
+import com.chess.engine.board.BitBoards;
+import com.chess.engine.board.Board;
+import com.chess.engine.board.MoveGenerator;
+import com.chess.engine.board.MoveList;
+import com.chess.engine.board.PackedMove;
+import com.chess.engine.board.SearchBoard;
+import com.chess.engine.pieces.Piece;
+
+import java.util.Arrays;
+
+import static com.chess.engine.search.SearchEngine.DRAW_SCORE;
+import static com.chess.engine.search.SearchEngine.INFINITE_SCORE;
+import static com.chess.engine.search.SearchEngine.MATE_BOUND;
+import static com.chess.engine.search.SearchEngine.MATE_SCORE;
+import static com.chess.engine.search.SearchEngine.MAX_PLY;
+
+/**
+ * The search of one thread. Everything a search changes at every node, the board, the move pickers, the principal
+ * variation, the killer moves and the move history, belongs to a single worker, so threads searching the same root
+ * only meet in the transposition table and never wait for each other. The main worker reports to the engine and
+ * watches the limits, helper workers only fill the table with results the main worker then finds instead of searching
+ * them again
+ */
+final class SearchWorker {
+
+    private static final int ASPIRATION_DEPTH = 5;
+    private static final int ASPIRATION_WINDOW = 25;
+    //The node count is handed to the engine and the limits are checked every 2048 nodes
+    private static final long LIMIT_CHECK_MASK = 2047;
+
+    private static final int KNIGHT = Piece.PieceType.KNIGHT.ordinal();
+    private static final int KING = Piece.PieceType.KING.ordinal();
+
+    private final SearchEngine engine;
+    private final TranspositionTable table;
+    private final SearchParameters parameters;
+    private final int id;
+    private final MovePicker[] movePickers = new MovePicker[MAX_PLY];
+    //The triangular principal variation table, row ply holds the best line found from that ply on
+    private final int[][] principalVariations = new int[MAX_PLY][MAX_PLY];
+    private final int[] principalVariationLengths = new int[MAX_PLY];
+    private final int[][] killerMoves = new int[MAX_PLY][2];
+    private final MoveHistory history = new MoveHistory();
+    //The context of the move made at each ply, read by the plies below it for their counter move and histories
+    private final int[] moveContexts = new int[MAX_PLY];
+    //The quiet moves searched at each ply, punished in the history when a later quiet move causes the cutoff
+    private final int[][] quietsSearched = new int[MAX_PLY][MoveList.MAX_MOVES];
+    //Scratch space for the static exchange evaluation of the captures in the quiescence search
+    private final int[] exchangeGains = new int[StaticExchange.MAX_EXCHANGE];
+
+    private SearchBoard board;
+    private int[] rootMoves;
+    private long nodes;
+    //The node count as last handed over, read by the main worker's thread while this worker is still searching
+    private volatile long publishedNodes;
+
+    //The best root move of the iteration in progress, NO_MOVE until one of its moves was searched to the end
+    private int iterationBestMove;
+    private int iterationBestScore;
+
+    SearchWorker(final SearchEngine engine, final TranspositionTable table, final SearchParameters parameters,
+                 final int id) {
+
+        this.engine = engine;
+        this.table = table;
+        this.parameters = parameters;
+        this.id = id;
+
+        for (int ply = 0; ply < MAX_PLY; ply++) {
+            this.movePickers[ply] = new MovePicker(this.history);
+        }
+
+    }
+
+    /**
+     * A method to get the worker ready to search a board. Every helper starts from the root moves rotated by its id,
+     * so the threads do not all begin with the same subtree
+     */
+    void prepare(final Board board, final int[] orderedRootMoves) {
+
+        if (this.board == null) {
+            this.board = new SearchBoard(board);
+        } else {
+            this.board.setPosition(board);
+        }
+
+        this.rootMoves = new int[orderedRootMoves.length];
+
+        for (int i = 0; i < orderedRootMoves.length; i++) {
+            this.rootMoves[i] = orderedRootMoves[(i + this.id) % orderedRootMoves.length];
+        }
+
+        for (final int[] killers : this.killerMoves) {
+            Arrays.fill(killers, PackedMove.NO_MOVE);
+        }
+
+        this.nodes = 0;
+        this.publishedNodes = 0;
+
+    }
+
+    /**
+     * A method run by a helper thread: iterative deepening until the engine stops the search. Odd helpers search one
+     * ply deeper than even ones, which spreads the threads over two depths at any time
+     */
+    void searchAsHelper(final int maxDepth) {
+
+        int score = 0;
+
+        for (int depth = 1 + (this.id & 1); depth <= maxDepth && !this.engine.isStopped(); depth++) {
+            score = aspirationSearch(depth, score);
+        }
+
+    }
+
+    /**
+     * A method to search the root with a window around the previous iteration's score, widening the side the score
+     * fell out of until the score lands inside it
+     */
+    int aspirationSearch(final int depth, final int previousScore) {
+
+        this.iterationBestMove = PackedMove.NO_MOVE;
+
+        if (depth < ASPIRATION_DEPTH || SearchEngine.isMateScore(previousScore)) {
+            return searchRoot(depth, -INFINITE_SCORE, INFINITE_SCORE);
+        }
+
+        int delta = ASPIRATION_WINDOW;
+        int alpha = Math.max(previousScore - delta, -INFINITE_SCORE);
+        int beta = Math.min(previousScore + delta, INFINITE_SCORE);
+
+        while (true) {
+
+            final int score = searchRoot(depth, alpha, beta);
+
+            if (this.engine.isStopped()) {
+                return score;
+            }
+
+            if (score <= alpha) {
+                alpha = Math.max(score - delta, -INFINITE_SCORE);
+            } else if (score >= beta) {
+                beta = Math.min(score + delta, INFINITE_SCORE);
+            } else {
+                return score;
+            }
+
+            delta *= 2;
+
+        }
+
+    }
+
+    /**
+     * A method to search every root move. A move that becomes the best is moved to the front of the root moves, so the
+     * next iteration searches it first and the rest keep their order behind it
+     */
+    private int searchRoot(final int depth, int alpha, final int beta) {
+
+        this.principalVariationLengths[0] = 0;
+        this.nodes++;
+        int bestScore = -INFINITE_SCORE;
+
+        for (int i = 0; i < this.rootMoves.length; i++) {
+
+            final int move = this.rootMoves[i];
+            int score;
+
+            this.moveContexts[0] = MoveHistory.context(this.board, move);
+            this.board.makeMove(move);
+
+            if (i == 0) {
+                score = -search(depth - 1, 1, -beta, -alpha, true);
+            } else {
+                score = -search(depth - 1, 1, -alpha - 1, -alpha, true);
+                if (score > alpha && score < beta) {
+                    score = -search(depth - 1, 1, -beta, -alpha, true);
+                }
+            }
+
+            this.board.unmakeMove();
+
+            if (this.engine.isStopped()) {
+                break;
+            }
+
+            if (score > bestScore) {
+
+                bestScore = score;
+
+                if (score > alpha) {
+
+                    alpha = score;
+                    updatePrincipalVariation(0, move);
+                    System.arraycopy(this.rootMoves, 0, this.rootMoves, 1, i);
+                    this.rootMoves[0] = move;
+                    this.iterationBestMove = move;
+                    this.iterationBestScore = score;
+
+                    if (alpha >= beta) {
+                        break;
+                    }
+
+                }
+
+            }
+
+        }
+
+        this.publishedNodes = this.nodes;
+        return bestScore;
+
+    }
+
+    /**
+     * A method to search a position below the root to the given depth, returning its score from the point of view of
+     * the side to move. A score at or below alpha is an upper bound and a score at or above beta a lower bound. Passing
+     * the move is not allowed right after a pass or while a null move cutoff is being verified
+     */
+    private int search(int depth, final int ply, int alpha, final int beta, final boolean allowNullMove) {
+
+        this.principalVariationLengths[ply] = ply;
+
+        if ((++this.nodes & LIMIT_CHECK_MASK) == 0) {
+            publishNodes();
+        }
+
+        if (this.engine.isStopped()) {
+            return 0;
+        }
+
+        if (this.board.isRepetition() || this.board.isDrawByFiftyMoveRule()) {
+            return DRAW_SCORE;
+        }
+
+        final boolean inCheck = MoveGenerator.isInCheck(this.board);
+
+        //A check is searched one ply deeper so the search does not stop right before the answer to it
+        if (inCheck) {
+            depth++;
+        }
+
+        if (depth <= 0) {
+            return quiescence(ply, alpha, beta);
+        }
+
+        if (ply >= MAX_PLY - 1) {
+            return Evaluation.evaluate(this.board);
+        }
+
+        final boolean isPrincipalVariationNode = beta - alpha > 1;
+        final long zobristKey = this.board.getZobristKey();
+        final long entry = this.table.probe(zobristKey);
+        final int tableMove = entry != 0 ? TranspositionTable.move(entry) : PackedMove.NO_MOVE;
+
+        //Outside the principal variation a deep enough stored result decides the node without searching it again
+        if (entry != 0 && !isPrincipalVariationNode && TranspositionTable.depth(entry) >= depth) {
+
+            final int tableScore = scoreFromTable(TranspositionTable.score(entry), ply);
+            final int bound = TranspositionTable.bound(entry);
+
+            if (bound == TranspositionTable.BOUND_EXACT ||
+                    bound == TranspositionTable.BOUND_LOWER && tableScore >= beta ||
+                    bound == TranspositionTable.BOUND_UPPER && tableScore <= alpha) {
+                return tableScore;
+            }
+
+        }
+
+        //The selective parts of the search only touch nodes off the principal variation and never a side in check
+        final boolean isPrunable = !isPrincipalVariationNode && !inCheck;
+        final int staticEvaluation = isPrunable ? Evaluation.evaluate(this.board) : -INFINITE_SCORE;
+
+        if (isPrunable) {
+
+            final int razoringMargin = this.parameters.getRazoringMargin(depth);
+
+            //Far below alpha close to the horizon only a capture can still help, which the quiescence search finds
+            if (razoringMargin >= 0 && staticEvaluation + razoringMargin < alpha) {
+
+                final int score = quiescence(ply, alpha, alpha + 1);
+
+                if (score <= alpha) {
+                    return score;
+                }
+
+            }
+
+            if (allowNullMove && staticEvaluation >= beta && this.parameters.canTryNullMove(depth)) {
+
+                final int score = searchNullMove(depth, ply, beta);
+
+                if (score >= beta) {
+                    return score;
+                }
+
+            }
+
+        }
+
+        final MovePicker picker = this.movePickers[ply];
+        final int[] killers = this.killerMoves[ply];
+        final int[] quiets = this.quietsSearched[ply];
+        final int previousContext = this.moveContexts[ply - 1];
+        final int secondPreviousContext = ply >= 2 ? this.moveContexts[ply - 2] : MoveHistory.NO_CONTEXT;
+        final int futilityMargin = this.parameters.getFutilityMargin(depth);
+        //Quiet moves cannot lift a position this far below alpha up to it before the horizon
+        final boolean isFutile = isPrunable && futilityMargin >= 0 && !SearchEngine.isMateScore(alpha) &&
+                staticEvaluation + futilityMargin <= alpha;
+        final int originalAlpha = alpha;
+        int bestScore = -INFINITE_SCORE;
+        int bestMove = PackedMove.NO_MOVE;
+        int movesSearched = 0;
+        int quietCount = 0;
+
+        picker.init(this.board, tableMove, killers[0], killers[1], previousContext, secondPreviousContext);
+
+        for (int move = picker.next(); move != PackedMove.NO_MOVE; move = picker.next()) {
+
+            final boolean isQuiet = isQuiet(move);
+            int score;
+
+            this.moveContexts[ply] = MoveHistory.context(this.board, move);
+            this.board.makeMove(move);
+
+            final boolean givesCheck = MoveGenerator.isInCheck(this.board);
+
+            if (isFutile && isQuiet && !givesCheck && movesSearched > 0) {
+                this.board.unmakeMove();
+                continue;
+            }
+
+            if (isQuiet) {
+                quiets[quietCount++] = move;
+            }
+
+            if (movesSearched == 0) {
+                score = -search(depth - 1, ply + 1, -beta, -alpha, true);
+            } else {
+
+                int reduction = 0;
+
+                //Late quiet moves are searched with less depth first, the ones the move order trusts more less so
+                if (isQuiet && !inCheck && !givesCheck) {
+                    reduction = this.parameters.getLateMoveReduction(depth, movesSearched);
+                    if (isPrincipalVariationNode || move == killers[0] || move == killers[1]) {
+                        reduction--;
+                    }
+                    reduction = Math.max(0, Math.min(reduction, depth - 2));
+                }
+
+                score = -search(depth - 1 - reduction, ply + 1, -alpha - 1, -alpha, true);
+                if (reduction > 0 && score > alpha) {
+                    score = -search(depth - 1, ply + 1, -alpha - 1, -alpha, true);
+                }
+                if (score > alpha && score < beta) {
+                    score = -search(depth - 1, ply + 1, -beta, -alpha, true);
+                }
+
+            }
+
+            this.board.unmakeMove();
+            movesSearched++;
+
+            if (this.engine.isStopped()) {
+                return 0;
+            }
+
+            if (score > bestScore) {
+
+                bestScore = score;
+                bestMove = move;
+
+                if (score > alpha) {
+
+                    alpha = score;
+                    updatePrincipalVariation(ply, move);
+
+                    if (alpha >= beta) {
+                        if (isQuiet) {
+                            storeKiller(killers, move);
+                            this.history.updateQuiets(this.board, move, quiets, quietCount, depth, previousContext,
+                                    secondPreviousContext);
+                        }
+                        break;
+                    }
+
+                }
+
+            }
+
+        }
+
+        if (movesSearched == 0) {
+            return inCheck ? -MATE_SCORE + ply : DRAW_SCORE;
+        }
+
+        final int bound = bestScore >= beta ? TranspositionTable.BOUND_LOWER :
+                bestScore > originalAlpha ? TranspositionTable.BOUND_EXACT : TranspositionTable.BOUND_UPPER;
+        //A node where every move failed low has no best move worth remembering
+        this.table.store(zobristKey, bound == TranspositionTable.BOUND_UPPER ? PackedMove.NO_MOVE : bestMove,
+                scoreToTable(bestScore, ply), depth, bound);
+
+        return bestScore;
+
+    }
+
+    /**
+     * A method to pass the move and search whether the opponent can punish it, returning a score of at least beta
+     * when even passing keeps the side to move at beta. A side with only pawns may be in zugzwang, where every move
+     * is worse than passing, so it never passes. A side with no more than a minor piece besides its pawns, and any
+     * node deep enough for the check to be cheap next to it, confirms the cutoff with a reduced search of the node
+     * itself without passing
+     */
+    private int searchNullMove(final int depth, final int ply, final int beta) {
+
+        final int nonPawnMaterial = getNonPawnMaterial(this.board.getSideToMove());
+
+        if (nonPawnMaterial == 0) {
+            return -INFINITE_SCORE;
+        }
+
+        final int reduction = this.parameters.getNullMoveReduction(depth);
+
+        this.moveContexts[ply] = MoveHistory.NO_CONTEXT;
+        this.board.makeNullMove();
+        int score = -search(depth - 1 - reduction, ply + 1, -beta, -beta + 1, false);
+        this.board.unmakeMove();
+
+        if (this.engine.isStopped() || score < beta) {
+            return score;
+        }
+
+        //A mate found after passing is not a mate of this position
+        if (SearchEngine.isMateScore(score)) {
+            score = beta;
+        }
+
+        if (depth < this.parameters.getNullMoveVerificationDepth() && nonPawnMaterial > Evaluation.BISHOP_VALUE) {
+            return score;
+        }
+
+        return search(depth - reduction, ply, beta - 1, beta, false) >= beta ? score : -INFINITE_SCORE;
+
+    }
+
+    /**
+     * A method to get the material of a side without its pawns and king
+     */
+    private int getNonPawnMaterial(final int side) {
+
+        int material = 0;
+
+        for (int pieceType = KNIGHT; pieceType < KING; pieceType++) {
+            material += BitBoards.count(this.board.getPieceBitBoard(side * BitBoards.NUM_PIECE_TYPES + pieceType)) *
+                    Evaluation.PIECE_VALUES[pieceType];
+        }
+
+        return material;
+
+    }
+
+    /**
+     * A method to search only the captures and promotions of a position at the end of the main search, so its score
+     * is never taken right in the middle of an exchange. The side to move may stand pat on the static evaluation
+     * instead of capturing, and a capture the static exchange evaluation shows to lose material is not searched at
+     * all. A side in check has to get out of it, so there every evasion is searched and a mate is found
+     */
+    private int quiescence(final int ply, int alpha, final int beta) {
+
+        this.principalVariationLengths[ply] = ply;
+
+        if ((++this.nodes & LIMIT_CHECK_MASK) == 0) {
+            publishNodes();
+        }
+
+        if (this.engine.isStopped()) {
+            return 0;
+        }
+
+        if (ply >= MAX_PLY - 1) {
+            return Evaluation.evaluate(this.board);
+        }
+
+        final boolean inCheck = MoveGenerator.isInCheck(this.board);
+        final MovePicker picker = this.movePickers[ply];
+        int bestScore;
+
+        if (inCheck) {
+            bestScore = -MATE_SCORE + ply;
+            picker.init(this.board, PackedMove.NO_MOVE, PackedMove.NO_MOVE, PackedMove.NO_MOVE,
+                    MoveHistory.NO_CONTEXT, MoveHistory.NO_CONTEXT);
+        } else {
+            bestScore = Evaluation.evaluate(this.board);
+            if (bestScore >= beta) {
+                return bestScore;
+            }
+            alpha = Math.max(alpha, bestScore);
+            picker.initQuiescence(this.board);
+        }
+
+        for (int move = picker.next(); move != PackedMove.NO_MOVE; move = picker.next()) {
+
+            if (!inCheck && StaticExchange.evaluate(this.board, move, this.exchangeGains) < 0) {
+                continue;
+            }
+
+            this.board.makeMove(move);
+            final int score = -quiescence(ply + 1, -beta, -alpha);
+            this.board.unmakeMove();
+
+            if (this.engine.isStopped()) {
+                return 0;
+            }
+
+            if (score > bestScore) {
+
+                bestScore = score;
+
+                if (score > alpha) {
+
+                    alpha = score;
+                    updatePrincipalVariation(ply, move);
+
+                    if (alpha >= beta) {
+                        break;
+                    }
+
+                }
+
+            }
+
+        }
+
+        return bestScore;
+
+    }
+
+    /**
+     * A method to make a move the first move of the line at a ply, followed by the line found below it
+     */
+    private void updatePrincipalVariation(final int ply, final int move) {
+
+        final int[] line = this.principalVariations[ply];
+        final int childLength = this.principalVariationLengths[ply + 1];
+
+        line[ply] = move;
+        System.arraycopy(this.principalVariations[ply + 1], ply + 1, line, ply + 1, childLength - ply - 1);
+        this.principalVariationLengths[ply] = childLength;
+
+    }
+
+    /**
+     * A method to remember a quiet move that caused a cutoff, it is tried early in sibling positions at the same ply
+     */
+    private static void storeKiller(final int[] killers, final int move) {
+
+        if (killers[0] == move) {
+            return;
+        }
+
+        killers[1] = killers[0];
+        killers[0] = move;
+
+    }
+
+    private static boolean isQuiet(final int move) {
+
+        return !PackedMove.isAttack(move) && !PackedMove.isPromotion(move);
+
+    }
+
+    /**
+     * A method to hand the node count over to the engine, the main worker also checks the limits of the search
+     */
+    private void publishNodes() {
+
+        this.publishedNodes = this.nodes;
+
+        if (this.id == 0) {
+            this.engine.checkLimits();
+        }
+
+    }
+
+    /**
+     * A method to get the best line found by the last iteration, starting with the best root move
+     */
+    int[] getPrincipalVariation() {
+
+        final int[] principalVariation = Arrays.copyOf(this.principalVariations[0],
+                Math.max(1, this.principalVariationLengths[0]));
+        principalVariation[0] = this.rootMoves[0];
+        return principalVariation;
+
+    }
+
+    int getBestMove() {
+
+        return this.rootMoves[0];
+
+    }
+
+    int getIterationBestMove() {
+
+        return this.iterationBestMove;
+
+    }
+
+    int getIterationBestScore() {
+
+        return this.iterationBestScore;
+
+    }
+
+    MoveHistory getHistory() {
+
+        return this.history;
+
+    }
+
+    int getRootMoveCount() {
+
+        return this.rootMoves.length;
+
+    }
+
+    /**
+     * A method to get the nodes searched up to the last root search or the last 2048 node check, whichever came last
+     */
+    long getNodes() {
+
+        return this.publishedNodes;
+
+    }
+
+    /**
+     * Mate scores are stored relative to the position instead of the root, so the same mate found through different
+     * paths stores the same score
+     */
+    private static int scoreToTable(final int score, final int ply) {
+
+        return score >= MATE_BOUND ? score + ply : score <= -MATE_BOUND ? score - ply : score;
+
+    }
+
+    private static int scoreFromTable(final int score, final int ply) {
+
+        return score >= MATE_BOUND ? score - ply : score <= -MATE_BOUND ? score + ply : score;
+
+    }
+
+}
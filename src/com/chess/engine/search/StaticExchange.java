@@ -0,0 +1,124 @@
+package com.chess.engine.search;
+
+import com.chess.engine.Alliance;
+import com.chess.engine.board.BitBoards;
+import com.chess.engine.board.MoveGenerator;
+import com.chess.engine.board.PackedMove;
+import com.chess.engine.board.SearchBoard;
+import com.chess.engine.pieces.Piece;
+
+/**
+ * Static exchange evaluation works out what a capture wins or loses once every piece attacking the destination tile
+ * has joined in, each side recapturing with its least valuable piece and stopping as soon as going on would cost it
+ * material. No move is made on the board: the attackers come from attackersTo, and every piece that captures is
+ * taken out of the occupancy so the sliders behind it join the exchange through the tile it left.
+ *
+ * Pins and checks are ignored, so the result is an estimate, but it is exact enough to tell a capture that loses
+ * material from one that does not
+ */
+public class StaticExchange {
+
+    private static final int WHITE = Alliance.WHITE.ordinal();
+    private static final int BLACK = Alliance.BLACK.ordinal();
+    private static final int PAWN = Piece.PieceType.PAWN.ordinal();
+    private static final int KING = Piece.PieceType.KING.ordinal();
+
+    //No exchange on one tile can take more captures than there are pieces on the board
+    static final int MAX_EXCHANGE = 32;
+
+    //StaticExchange constructor with a runtimeException to prevent a user from instantiating this class
+    private StaticExchange() {
+        throw new RuntimeException("You cannot instantiate me!");
+    }
+
+    /**
+     * A method to get the material the side to move gains with a capture or promotion when the exchange it starts on
+     * the destination tile is played out, negative when the move loses material. The gains of the exchange are worked
+     * out in the given array of at least MAX_EXCHANGE entries, which the caller keeps so no array is made per call
+     */
+    static int evaluate(final SearchBoard board, final int move, final int[] gain) {
+
+        final int from = PackedMove.getCurrentCoordinate(move);
+        final int to = PackedMove.getDestinationCoordinate(move);
+        final int us = board.getSideToMove();
+        long occupancy = board.getOccupancy() ^ BitBoards.squareMask(from);
+        int valueOnTile = Evaluation.PIECE_VALUES[board.getPieceOnTile(from) % BitBoards.NUM_PIECE_TYPES];
+
+        if (PackedMove.getFlags(move) == PackedMove.EN_PASSANT) {
+            //The pawn taken en passant stands behind the destination tile, which is empty
+            occupancy ^= BitBoards.squareMask(to + (us == WHITE ? 8 : -8));
+            gain[0] = Evaluation.PAWN_VALUE;
+        } else if (PackedMove.isAttack(move)) {
+            gain[0] = Evaluation.PIECE_VALUES[board.getPieceOnTile(to) % BitBoards.NUM_PIECE_TYPES];
+        } else {
+            gain[0] = 0;
+        }
+
+        if (PackedMove.isPromotion(move)) {
+            valueOnTile = Evaluation.PIECE_VALUES[PackedMove.getPromotionType(move)];
+            gain[0] += valueOnTile - Evaluation.PAWN_VALUE;
+        }
+
+        long attackers = attackersTo(board, to, occupancy);
+        int side = us ^ 1;
+        int depth = 0;
+
+        while (true) {
+
+            final long sideAttackers = attackers & board.getOccupancy(side);
+
+            if (sideAttackers == 0) {
+                break;
+            }
+
+            int attackerType = PAWN;
+            long attacker = sideAttackers & board.getPieceBitBoard(side * BitBoards.NUM_PIECE_TYPES + PAWN);
+
+            while (attacker == 0) {
+                attackerType++;
+                attacker = sideAttackers & board.getPieceBitBoard(side * BitBoards.NUM_PIECE_TYPES + attackerType);
+            }
+
+            //A king may only take back when the other side has nothing left to take it with
+            if (attackerType == KING && (attackers & board.getOccupancy(side ^ 1)) != 0) {
+                break;
+            }
+
+            depth++;
+            //What this side is up if it takes the piece on the tile and loses nothing after it
+            gain[depth] = valueOnTile - gain[depth - 1];
+
+            //This side is behind whether it takes or stops, so taking is never better and the exchange ends here
+            if (Math.max(-gain[depth - 1], gain[depth]) < 0) {
+                depth--;
+                break;
+            }
+
+            valueOnTile = Evaluation.PIECE_VALUES[attackerType];
+            occupancy ^= BitBoards.squareMask(BitBoards.firstSquare(attacker));
+            attackers = attackersTo(board, to, occupancy);
+            side ^= 1;
+
+        }
+
+        //Each side only takes back when that is better than stopping, worked out from the last capture backwards
+        while (depth > 0) {
+            gain[depth - 1] = -Math.max(-gain[depth - 1], gain[depth]);
+            depth--;
+        }
+
+        return gain[0];
+
+    }
+
+    /**
+     * A method to get the pieces of both sides still on the board that attack a tile through the given occupancy
+     */
+    private static long attackersTo(final SearchBoard board, final int tileCoordinate, final long occupancy) {
+
+        return (MoveGenerator.attackersTo(board, tileCoordinate, WHITE, occupancy) |
+                MoveGenerator.attackersTo(board, tileCoordinate, BLACK, occupancy)) & occupancy;
+
+    }
+
+}
@@ -0,0 +1,223 @@
+package com.chess.engine.search;
+
+import com.chess.engine.board.Board;
+
+import java.util.Arrays;
+
+/**
+ * A fixed size hash table of search results keyed by a board's Zobrist key. Every entry is two longs in one primitive
+ * array, the packed data and the key XOR-ed with that data. Threads read and write entries without any locking; a
+ * torn write from two threads storing at the same time leaves a key that no longer matches its data, so the XOR check
+ * on probe simply reports a miss instead of returning corrupt data
+ */
+public class TranspositionTable {
+
+    //Bound types stored with a score, no bound at all marks an empty entry
+    public static final int BOUND_NONE = 0;
+    public static final int BOUND_UPPER = 1;
+    public static final int BOUND_LOWER = 2;
+    public static final int BOUND_EXACT = 3;
+
+    //Layout of the packed data: move in bits 0-15, score in 16-31, depth in 32-39, bound in 40-41 and age in 42-49
+    private static final int SCORE_SHIFT = 16;
+    private static final int DEPTH_SHIFT = 32;
+    private static final int BOUND_SHIFT = 40;
+    private static final int AGE_SHIFT = 42;
+    private static final int AGE_MASK = 0xFF;
+
+    //Entries are grouped in buckets so a deep result is not thrown away by the first shallow result that collides
+    private static final int BUCKET_SIZE = 4;
+    private static final int LONGS_PER_ENTRY = 2;
+    private static final int BYTES_PER_ENTRY = LONGS_PER_ENTRY * Long.BYTES;
+
+    private final long[] entries;
+    private final int bucketMask;
+    private volatile int age;
+
+    /**
+     * Create a table that uses at most the given amount of megabytes, rounded down to a power of two number of buckets
+     */
+    public TranspositionTable(final int sizeInMegabytes) {
+
+        if (sizeInMegabytes <= 0) {
+            throw new IllegalArgumentException("Transposition table size must be positive: " + sizeInMegabytes);
+        }
+
+        final long bucketCount = Long.highestOneBit(((long) sizeInMegabytes << 20) / (BYTES_PER_ENTRY * BUCKET_SIZE));
+        //A Java array cannot hold more than Integer.MAX_VALUE longs
+        final long maxBuckets = Integer.highestOneBit(Integer.MAX_VALUE / (LONGS_PER_ENTRY * BUCKET_SIZE));
+        final int buckets = (int) Math.max(1, Math.min(bucketCount, maxBuckets));
+
+        this.entries = new long[buckets * BUCKET_SIZE * LONGS_PER_ENTRY];
+        this.bucketMask = buckets - 1;
+
+    }
+
+    /**
+     * A method to look up a position, returns the packed entry data or 0 when the position is not in the table
+     */
+    public long probe(final long zobristKey) {
+
+        final int bucketStart = bucketStart(zobristKey);
+
+        for (int i = bucketStart; i < bucketStart + BUCKET_SIZE * LONGS_PER_ENTRY; i += LONGS_PER_ENTRY) {
+
+            //Read the data once so the verification and the returned value come from the same read
+            final long data = this.entries[i];
+
+            if (data != 0 && (this.entries[i + 1] ^ data) == zobristKey) {
+
+                return data;
+
+            }
+
+        }
+
+        return 0L;
+
+    }
+
+    /**
+     * A method to look up the position on a board
+     */
+    public long probe(final Board board) {
+
+        return probe(board.getZobristKey());
+
+    }
+
+    /**
+     * A method to store a search result. An entry for the same position is always overwritten, otherwise the entry in
+     * the bucket from the oldest search with the shallowest depth is replaced
+     */
+    public void store(final long zobristKey, final int move, final int score, final int depth, final int bound) {
+
+        final int bucketStart = bucketStart(zobristKey);
+        final int currentAge = this.age;
+        int replaceIndex = bucketStart;
+        int replaceWorth = Integer.MAX_VALUE;
+
+        for (int i = bucketStart; i < bucketStart + BUCKET_SIZE * LONGS_PER_ENTRY; i += LONGS_PER_ENTRY) {
+
+            final long data = this.entries[i];
+
+            if (data == 0 || (this.entries[i + 1] ^ data) == zobristKey) {
+
+                //Keep the old best move when a new result for the same position did not find one
+                final int keptMove = move == 0 && data != 0 ? move(data) : move;
+                write(i, zobristKey, pack(keptMove, score, depth, bound, currentAge));
+                return;
+
+            }
+
+            //Entries left over from older searches are worth less than any entry of the current search
+            final int ageDistance = (currentAge - age(data)) & AGE_MASK;
+            final int worth = depth(data) - ageDistance * 8;
+
+            if (worth < replaceWorth) {
+
+                replaceWorth = worth;
+                replaceIndex = i;
+
+            }
+
+        }
+
+        write(replaceIndex, zobristKey, pack(move, score, depth, bound, currentAge));
+
+    }
+
+    /**
+     * A method to be called at the start of every new search so results of earlier searches are replaced first
+     */
+    public void newSearch() {
+
+        this.age = (this.age + 1) & AGE_MASK;
+
+    }
+
+    public void clear() {
+
+        Arrays.fill(this.entries, 0L);
+
+    }
+
+    /**
+     * A method to estimate how full the table is in permille by sampling the first thousand entries
+     */
+    public int hashFull() {
+
+        final int sampled = Math.min(1000, this.entries.length / LONGS_PER_ENTRY);
+        int used = 0;
+
+        for (int i = 0; i < sampled; i++) {
+
+            final long data = this.entries[i * LONGS_PER_ENTRY];
+
+            if (data != 0 && age(data) == this.age) {
+
+                used++;
+
+            }
+
+        }
+
+        return used * 1000 / sampled;
+
+    }
+
+    public static int move(final long data) {
+
+        return (int) (data & 0xFFFF);
+
+    }
+
+    public static int score(final long data) {
+
+        return (short) (data >>> SCORE_SHIFT);
+
+    }
+
+    public static int depth(final long data) {
+
+        return (byte) (data >>> DEPTH_SHIFT);
+
+    }
+
+    public static int bound(final long data) {
+
+        return (int) (data >>> BOUND_SHIFT) & 0x3;
+
+    }
+
+    private static int age(final long data) {
+
+        return (int) (data >>> AGE_SHIFT) & AGE_MASK;
+
+    }
+
+    private static long pack(final int move, final int score, final int depth, final int bound, final int age) {
+
+        return (move & 0xFFFFL) |
+                ((score & 0xFFFFL) << SCORE_SHIFT) |
+                ((depth & 0xFFL) << DEPTH_SHIFT) |
+                ((long) (bound & 0x3) << BOUND_SHIFT) |
+                ((long) (age & AGE_MASK) << AGE_SHIFT);
+
+    }
+
+    private void write(final int index, final long zobristKey, final long data) {
+
+        this.entries[index] = data;
+        this.entries[index + 1] = zobristKey ^ data;
+
+    }
+
+    private int bucketStart(final long zobristKey) {
+
+        //The upper half of the key picks the bucket, the full key is still verified on every probe
+        return (int) ((zobristKey >>> 32) & this.bucketMask) * BUCKET_SIZE * LONGS_PER_ENTRY;
+
+    }
+
+}